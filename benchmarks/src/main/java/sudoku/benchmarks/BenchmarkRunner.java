@@ -0,0 +1,27 @@
+package sudoku.benchmarks;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class BenchmarkRunner {
+    /**
+     * Executa os benchmarks com o profiler de GC habilitado, de forma que cada resultado de vazão venha
+     * acompanhado da taxa de alocação ({@code gc.alloc.rate.norm}, em bytes por operação).
+     *
+     * Aceita as mesmas opções de linha de comando do JMH, por exemplo um filtro de benchmarks
+     * ({@code java -jar target/benchmarks.jar Solver}) ou {@code -p corpus=hard}.
+     *
+     * @param args as opções do JMH.
+     */
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package sudoku.benchmarks;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import sudoku.Board;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class Corpus {
+    /**
+     * Carrega um dos conjuntos de jogos empacotados com os benchmarks.
+     *
+     * Os conjuntos ficam em {@code /corpus/<nome>.txt}, com um jogo por linha no formato de 81 caracteres
+     * (linha a linha, com {@code .} ou {@code 0} para células vazias). Os arquivos são fixos para que os
+     * resultados sejam comparáveis entre execuções:
+     * - {@code easy}: jogos de 36 valores iniciais produzidos pelo gerador com semente fixa;
+     * - {@code hard}: jogos clássicos considerados difíceis para resolvedores por busca;
+     * - {@code 17-clue}: jogos com o número mínimo de valores iniciais para solução única.
+     *
+     * @param name O nome do conjunto ({@code easy}, {@code hard} ou {@code 17-clue}).
+     * @return Os tabuleiros do conjunto, na ordem do arquivo.
+     *
+     * @throws IllegalArgumentException Se o conjunto não existir.
+     */
+    public static Board[] load(String name) {
+        InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name + ".txt");
+        if (in == null) {
+            throw new IllegalArgumentException("Conjunto de jogos inexistente: " + name);
+        }
+        List<Board> boards = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    boards.add(parse(line.trim()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return boards.toArray(new Board[0]);
+    }
+
+    private static Board parse(String line) {
+        Board board = new Board();
+        for (int i = 0; i < 81; i++) {
+            char c = line.charAt(i);
+            if (c >= '1' && c <= '9') {
+                board.setAutoGeneratedValue(i / 9, i % 9, c - '0');
+            }
+        }
+        return board;
+    }
+}
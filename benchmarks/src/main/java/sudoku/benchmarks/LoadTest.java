@@ -0,0 +1,451 @@
+package sudoku.benchmarks;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import sudoku.Difficulty;
+import sudoku.Game;
+import sudoku.LatencyHistogram;
+import sudoku.PuzzleId;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class LoadTest {
+    /**
+     * As operações que um jogador simulado pode fazer, com a opção correspondente do menu do jogo.
+     */
+    enum Operation {
+        ADD("add", 1),
+        REMOVE("remove", 2),
+        VALIDATE("validate", 3),
+        HINT("hint", 4),
+        CANDIDATES("candidates", 4),
+        UNDO("undo", 6),
+        REDO("redo", 7);
+
+        final String label;
+        final int choice;
+
+        Operation(String label, int choice) {
+            this.label = label;
+            this.choice = choice;
+        }
+
+        static Operation of(String label) {
+            for (Operation operation : values()) {
+                if (operation.label.equals(label)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Operação desconhecida: " + label);
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final String DEFAULT_MIX = "add=50,remove=15,hint=15,candidates=5,validate=10,undo=3,redo=2";
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+
+    /*
+     * As entradas de todas as jogadas possíveis em um 9x9 são montadas uma única vez, para que os
+     * jogadores simulados não aloquem memória ao escolher uma jogada e a alocação medida seja só a do jogo.
+     */
+    private static final String[] ADD_INPUTS = new String[9 * 9 * 9];
+    private static final String[] CELL_INPUTS = new String[9 * 9];
+
+    static {
+        for (int cell = 0; cell < 81; cell++) {
+            CELL_INPUTS[cell] = "(" + (cell / 9 + 1) + "," + (cell % 9 + 1) + ")";
+            for (int value = 1; value <= 9; value++) {
+                ADD_INPUTS[cell * 9 + value - 1] = "(" + (cell / 9 + 1) + "," + (cell % 9 + 1) + "," + value + ")";
+            }
+        }
+    }
+
+    private final int players;
+    private final int threads;
+    private final double rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final int[] weights = new int[OPERATIONS.length];
+    private final List<Operation> scriptOperations = new ArrayList<>();
+    private final List<String> scriptInputs = new ArrayList<>();
+    private final long seed;
+    private final Difficulty difficulty;
+    private final int puzzles;
+    private final int movesPerGame;
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final long[] allocated = new long[OPERATIONS.length];
+    private final long[] counts = new long[OPERATIONS.length];
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final boolean allocationSupported;
+
+    /**
+     * Construtor da classe LoadTest.
+     *
+     * @param players O número de jogos simultâneos, cada um com o seu próprio {@link Game}.
+     * @param threads O número de threads que conduzem os jogos.
+     * @param rate A taxa de operações por segundo de cada jogador, ou 0 para operar sem pausas.
+     * @param warmupSeconds A duração do aquecimento, cujas operações não são medidas.
+     * @param durationSeconds A duração da medição.
+     * @param mix Os pesos das operações aleatórias, como {@code add=50,hint=20,validate=10}.
+     * @param script Um arquivo com uma operação por linha, repetido por todos os jogadores em vez das
+     *               operações aleatórias, ou {@code null}.
+     * @param seed A semente dos sorteios e dos códigos dos jogos.
+     * @param difficulty O nível dos jogos.
+     * @param puzzles Quantos jogos diferentes são distribuídos entre os jogadores.
+     * @param movesPerGame Após quantas operações um jogador começa um novo jogo.
+     *
+     * @throws IllegalArgumentException Se algum valor for inválido.
+     * @throws IOException Se o arquivo de operações não puder ser lido.
+     */
+    public LoadTest(int players, int threads, double rate, long warmupSeconds, long durationSeconds, String mix, Path script,
+            long seed, Difficulty difficulty, int puzzles, int movesPerGame) throws IOException {
+        if (players < 1 || threads < 1 || rate < 0 || warmupSeconds < 0 || durationSeconds < 1 || puzzles < 1 || movesPerGame < 1) {
+            throw new IllegalArgumentException("Parâmetros do teste de carga inválidos.");
+        }
+        this.players = players;
+        this.threads = Math.min(threads, players);
+        this.rate = rate;
+        warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.puzzles = puzzles;
+        this.movesPerGame = movesPerGame;
+        parseMix(mix);
+        if (script != null) {
+            parseScript(Files.readAllLines(script, StandardCharsets.UTF_8));
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        allocationSupported = threadBean.isThreadAllocatedMemorySupported();
+        if (allocationSupported) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * Executa o teste de carga a partir dos argumentos de linha de comando e imprime o relatório.
+     *
+     * Uso: {@code java -cp target/benchmarks.jar sudoku.benchmarks.LoadTest [--players N] [--threads N]
+     * [--rate R] [--warmup S] [--duration S] [--mix add=50,...] [--script arquivo] [--seed N]
+     * [--difficulty EASY|MEDIUM|HARD|EXPERT] [--puzzles N] [--moves-per-game N]}.
+     *
+     * @param args Os argumentos de linha de comando.
+     */
+    public static void main(String[] args) throws Exception {
+        int players = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double rate = 0;
+        long warmup = 10;
+        long duration = 30;
+        String mix = DEFAULT_MIX;
+        Path script = null;
+        long seed = 1;
+        Difficulty difficulty = Difficulty.MEDIUM;
+        int puzzles = 256;
+        int movesPerGame = 200;
+        LoadTest test;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Falta o valor da opção " + args[i]);
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--players" -> players = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--rate" -> rate = Double.parseDouble(value);
+                    case "--warmup" -> warmup = Long.parseLong(value);
+                    case "--duration" -> duration = Long.parseLong(value);
+                    case "--mix" -> mix = value;
+                    case "--script" -> script = Path.of(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--difficulty" -> difficulty = Difficulty.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--puzzles" -> puzzles = Integer.parseInt(value);
+                    case "--moves-per-game" -> movesPerGame = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i - 1]);
+                }
+            }
+            test = new LoadTest(players, threads, rate, warmup, duration, mix, script, seed, difficulty, puzzles, movesPerGame);
+        } catch (RuntimeException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            System.err.println("Uso: LoadTest [--players N] [--threads N] [--rate op/s por jogador] [--warmup s] [--duration s] "
+                    + "[--mix add=50,remove=15,...] [--script arquivo] [--seed N] [--difficulty nível] [--puzzles N] [--moves-per-game N]");
+            System.exit(1);
+            return;
+        }
+        test.run();
+        test.printReport(System.out);
+    }
+
+    /**
+     * Executa o teste: cria os jogos, conduz os jogadores durante o aquecimento e a medição, e aguarda o fim.
+     *
+     * Os jogadores são divididos entre as threads, e cada thread conduz os seus em sequência, sem uma
+     * thread por jogador, o que permite simular dezenas de milhares de jogos e medir a alocação de cada
+     * operação pela thread que a executou. Sem taxa, cada thread passa de um jogador para o próximo
+     * sem pausa e a latência é o tempo de cada operação. Com taxa, cada jogador faz operações em
+     * intervalos aleatórios (chegadas de Poisson) com a média pedida, e a latência é medida a partir
+     * do instante em que a operação deveria ter começado: se as threads não dão conta da taxa, a
+     * espera aparece na latência em vez de ser escondida pelo atraso das operações seguintes.
+     */
+    public void run() throws InterruptedException {
+        // Os jogos são criados antes de marcar o início, para que a geração não atrase as primeiras operações.
+        List<List<Player>> assigned = new ArrayList<>();
+        SplittableRandom[] randoms = new SplittableRandom[threads];
+        for (int w = 0; w < threads; w++) {
+            assigned.add(new ArrayList<>());
+            randoms[w] = new SplittableRandom(seed * 31 + w);
+        }
+        for (int p = 0; p < players; p++) {
+            Player player = new Player();
+            player.game = newGame(randoms[p % threads]);
+            player.step = scriptOperations.isEmpty() ? 0 : (int) ((p * 7919L) % scriptOperations.size());
+            assigned.get(p % threads).add(player);
+        }
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        for (int w = 0; w < threads; w++) {
+            List<Player> mine = assigned.get(w);
+            SplittableRandom random = randoms[w];
+            workers[w] = Thread.ofPlatform().name("load-" + w).start(() -> drive(mine, random, start));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void drive(List<Player> mine, SplittableRandom random, long start) {
+        for (Player player : mine) {
+            player.due = start + (rate > 0 ? nextInterval(random) : 0);
+        }
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long[] localAllocated = new long[OPERATIONS.length];
+        long[] localCounts = new long[OPERATIONS.length];
+        PriorityQueue<Player> queue = new PriorityQueue<>((a, b) -> Long.compare(a.due, b.due));
+        queue.addAll(mine);
+        int next = 0;
+        while (true) {
+            Player player;
+            if (rate > 0) {
+                player = queue.poll();
+                long wait = player.due - System.nanoTime();
+                if (player.due >= end) {
+                    break;
+                }
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                player = mine.get(next);
+                next = next + 1 == mine.size() ? 0 : next + 1;
+            }
+            Operation operation;
+            String input;
+            if (scriptOperations.isEmpty()) {
+                operation = pickOperation(random);
+                input = inputFor(operation, random);
+            } else {
+                operation = scriptOperations.get(player.step);
+                input = scriptInputs.get(player.step);
+                player.step = player.step + 1 == scriptOperations.size() ? 0 : player.step + 1;
+            }
+
+            long allocatedBefore = allocationSupported ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+            long begin = System.nanoTime();
+            player.game.perform(operation.choice, input);
+            long finish = System.nanoTime();
+            long allocatedAfter = allocationSupported ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+
+            long scheduled = rate > 0 ? player.due : begin;
+            if (scheduled >= measureFrom) {
+                latencies[operation.ordinal()].record(finish - scheduled);
+                localAllocated[operation.ordinal()] += allocatedAfter - allocatedBefore;
+                localCounts[operation.ordinal()]++;
+            }
+            if (++player.moves >= movesPerGame || player.game.isSolved()) {
+                player.game = newGame(random);
+                player.moves = 0;
+            }
+            if (rate > 0) {
+                player.due += nextInterval(random);
+                queue.add(player);
+            } else if (finish >= end) {
+                break;
+            }
+        }
+        synchronized (this) {
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                allocated[i] += localAllocated[i];
+                counts[i] += localCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Imprime a vazão, os percentis de latência e a alocação por operação, separados por tipo de operação.
+     *
+     * @param out O destino do relatório.
+     */
+    public synchronized void printReport(PrintStream out) {
+        double seconds = durationNanos / 1e9;
+        out.printf(Locale.ROOT, "Jogadores: %d, threads: %d, taxa: %s, medição: %d s (aquecimento %d s)%n",
+                players, threads, rate > 0 ? rate + " op/s por jogador" : "sem pausas", durationNanos / 1_000_000_000L, warmupNanos / 1_000_000_000L);
+        out.printf(Locale.ROOT, "%-11s %12s %11s %10s %10s %10s %10s %10s%n",
+                "operação", "ops", "ops/s", "p50 (us)", "p99 (us)", "p99.9 (us)", "max (us)", "bytes/op");
+        LatencyHistogram total = new LatencyHistogram();
+        long totalCount = 0;
+        long totalAllocated = 0;
+        for (Operation operation : OPERATIONS) {
+            LatencyHistogram histogram = latencies[operation.ordinal()];
+            long count = counts[operation.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            printLine(out, operation.label, count, seconds, histogram, allocated[operation.ordinal()]);
+            totalCount += count;
+            totalAllocated += allocated[operation.ordinal()];
+        }
+        for (LatencyHistogram histogram : latencies) {
+            merge(histogram, total);
+        }
+        printLine(out, "total", totalCount, seconds, total, totalAllocated);
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, gc.getCollectionCount());
+            collectionMillis += Math.max(0, gc.getCollectionTime());
+        }
+        out.printf(Locale.ROOT, "GC (processo inteiro): %d coletas, %d ms%n", collections, collectionMillis);
+    }
+
+    private void printLine(PrintStream out, String label, long count, double seconds, LatencyHistogram histogram, long bytes) {
+        out.printf(Locale.ROOT, "%-11s %12d %11.0f %10.1f %10.1f %10.1f %10.1f %10s%n", label, count, count / seconds,
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMax() / 1e3,
+                allocationSupported ? String.valueOf(bytes / count) : "n/d");
+    }
+
+    /**
+     * Soma um histograma a outro. O {@link LatencyHistogram} não expõe os baldes, então cada faixa de
+     * percentil é reinserida com o seu valor; o resultado tem a mesma precisão dos histogramas originais.
+     */
+    private static void merge(LatencyHistogram from, LatencyHistogram into) {
+        long count = from.getCount();
+        long added = 0;
+        for (int step = 1; step <= 10_000 && added < count; step++) {
+            long rank = (long) Math.ceil(step / 10_000.0 * count);
+            long value = from.getValueAtPercentile(step / 100.0);
+            for (; added < rank; added++) {
+                into.record(value);
+            }
+        }
+    }
+
+    private Game newGame(SplittableRandom random) {
+        Game game = new Game(PuzzleId.generate(seed + random.nextInt(puzzles), difficulty));
+        game.setOutput(DISCARD);
+        return game;
+    }
+
+    private long nextInterval(SplittableRandom random) {
+        return (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+    }
+
+    private Operation pickOperation(SplittableRandom random) {
+        int pick = random.nextInt(weights[weights.length - 1]);
+        int i = 0;
+        while (weights[i] <= pick) {
+            i++;
+        }
+        return OPERATIONS[i];
+    }
+
+    private static String inputFor(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case ADD -> ADD_INPUTS[random.nextInt(ADD_INPUTS.length)];
+            case REMOVE, CANDIDATES -> CELL_INPUTS[random.nextInt(CELL_INPUTS.length)];
+            case HINT -> "";
+            default -> null;
+        };
+    }
+
+    /**
+     * Lê os pesos no formato {@code add=50,remove=15}, guardando-os acumulados para o sorteio.
+     */
+    private void parseMix(String mix) {
+        int[] single = new int[OPERATIONS.length];
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Peso inválido: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Peso negativo: " + entry);
+            }
+            single[Operation.of(parts[0].trim()).ordinal()] = weight;
+        }
+        int sum = 0;
+        for (int i = 0; i < single.length; i++) {
+            sum += single[i];
+            weights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Nenhuma operação com peso positivo: " + mix);
+        }
+    }
+
+    /**
+     * Lê um roteiro com uma operação por linha, como {@code add (1,2,3)}, {@code remove (1,2)},
+     * {@code hint}, {@code candidates (4,5)}, {@code validate}, {@code undo} ou {@code redo}. Linhas em
+     * branco e iniciadas por {@code #} são ignoradas.
+     */
+    private void parseScript(List<String> lines) {
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int space = trimmed.indexOf(' ');
+            Operation operation = Operation.of(space < 0 ? trimmed : trimmed.substring(0, space));
+            String input = space < 0 ? "" : trimmed.substring(space + 1).trim();
+            if ((operation == Operation.ADD || operation == Operation.REMOVE || operation == Operation.CANDIDATES) && input.isEmpty()) {
+                throw new IllegalArgumentException("Operação sem posição no roteiro: " + line);
+            }
+            scriptOperations.add(operation);
+            scriptInputs.add(input);
+        }
+        if (scriptOperations.isEmpty()) {
+            throw new IllegalArgumentException("O roteiro não tem operações.");
+        }
+    }
+
+    /**
+     * Um jogador simulado: o seu jogo, o instante da próxima operação e a posição no roteiro.
+     */
+    private static final class Player {
+        Game game;
+        long due;
+        int step;
+        int moves;
+    }
+}
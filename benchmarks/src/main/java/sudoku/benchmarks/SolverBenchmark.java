@@ -0,0 +1,59 @@
+package sudoku.benchmarks;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.Board;
+import sudoku.Solver;
+
+/**
+ *
+ * @author caiofdev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"easy", "hard", "17-clue"})
+    public String corpus;
+
+    private Board[] boards;
+    private int next;
+    private Solver solver;
+
+    @Setup
+    public void setUp() {
+        boards = Corpus.load(corpus);
+        solver = new Solver();
+    }
+
+    @Benchmark
+    public Board solve() {
+        return solver.solve(nextBoard());
+    }
+
+    /**
+     * Verificação de unicidade, que percorre toda a árvore de busca e é o custo dominante na geração.
+     */
+    @Benchmark
+    public int countSolutions() {
+        return solver.countSolutions(nextBoard(), 2);
+    }
+
+    private Board nextBoard() {
+        Board board = boards[next];
+        next = next + 1 == boards.length ? 0 : next + 1;
+        return board;
+    }
+}
@@ -0,0 +1,98 @@
+package sudoku.benchmarks;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sudoku.Board;
+import sudoku.ValidationResult;
+import sudoku.Validator;
+
+/**
+ *
+ * @author caiofdev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+    @Param({"easy", "hard", "17-clue"})
+    public String corpus;
+
+    private Board[] boards;
+    private byte[] flat;
+    private int next;
+    private final ValidationResult result = new ValidationResult();
+
+    @Setup
+    public void setUp() {
+        boards = Corpus.load(corpus);
+        flat = new byte[81 * boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            for (int cell = 0; cell < 81; cell++) {
+                flat[81 * i + cell] = (byte) boards[i].getValue(cell / 9, cell % 9);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return Validator.validate(nextBoard());
+    }
+
+    /**
+     * Validação completa, registrando todos os conflitos em um resultado reutilizado.
+     */
+    @Benchmark
+    public boolean validateReport() {
+        return Validator.validate(nextBoard(), result);
+    }
+
+    /**
+     * Validação de todo o corpus guardado em formato plano, com a versão vetorizada.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+    public int validateBatch() {
+        return Validator.validateBatch(flat, 0, boards.length, null);
+    }
+
+    /**
+     * A mesma validação em lote, com a versão escalar, para comparação.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dsudoku.vector=false"})
+    public int validateBatchScalar() {
+        return Validator.validateBatch(flat, 0, boards.length, null);
+    }
+
+    /**
+     * Consulta os valores possíveis de todas as 81 células de um tabuleiro.
+     */
+    @Benchmark
+    public void possibleValues(Blackhole blackhole) {
+        Board board = nextBoard();
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                blackhole.consume(Validator.getPossibleValues(board, row, col));
+            }
+        }
+    }
+
+    private Board nextBoard() {
+        Board board = boards[next];
+        next = next + 1 == boards.length ? 0 : next + 1;
+        return board;
+    }
+}
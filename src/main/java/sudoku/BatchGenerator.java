@@ -0,0 +1,150 @@
+package sudoku;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class BatchGenerator {
+    private static final int LEAF_SIZE = 16;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Construtor da classe BatchGenerator que utiliza o pool comum do {@link ForkJoinPool},
+     * dimensionado para o número de processadores disponíveis.
+     */
+    public BatchGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construtor da classe BatchGenerator com um pool informado.
+     *
+     * @param pool O pool fork-join no qual os jogos serão gerados.
+     */
+    public BatchGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Gera um lote de jogos em paralelo e aguarda o término.
+     *
+     * @param count A quantidade de jogos a gerar.
+     * @param clues A quantidade de valores iniciais de cada jogo.
+     * @param difficulty O nível de dificuldade de cada jogo.
+     * @param seed A semente do lote.
+     * @param sink O destino que recebe cada jogo assim que ele fica pronto.
+     *
+     * @see #submit(int, int, Difficulty, long, Consumer)
+     */
+    public void generate(int count, int clues, Difficulty difficulty, long seed, Consumer<Board> sink) {
+        submit(count, clues, difficulty, seed, sink).join();
+    }
+
+    /**
+     * Inicia a geração de um lote de jogos em paralelo, sem bloquear a thread chamadora.
+     *
+     * O intervalo de jogos é dividido recursivamente em tarefas fork-join até blocos de poucos jogos,
+     * distribuídos entre os processadores por roubo de trabalho. Cada divisão separa o
+     * {@link SplittableRandom} do lote em dois geradores independentes, de forma que cada bloco tenha o
+     * seu próprio gerador sem compartilhamento entre threads. Como a árvore de divisões depende apenas de
+     * {@code count} e {@code seed}, o mesmo lote é sempre produzido para a mesma semente, qualquer que seja
+     * o número de threads; apenas a ordem de entrega varia.
+     *
+     * Os jogos são entregues ao {@code sink} pela thread que os gerou, assim que cada um fica pronto,
+     * portanto o {@code sink} deve ser seguro para uso concorrente.
+     *
+     * @param count A quantidade de jogos a gerar.
+     * @param clues A quantidade de valores iniciais de cada jogo (de 0 a 81).
+     * @param difficulty O nível de dificuldade de cada jogo.
+     * @param seed A semente do lote.
+     * @param sink O destino que recebe cada jogo assim que ele fica pronto.
+     * @return A tarefa em execução, que pode ser aguardada com {@link ForkJoinTask#join()}.
+     *
+     * @throws IllegalArgumentException Se {@code count} for negativo ou {@code clues} estiver fora do intervalo de 0 a 81.
+     */
+    public ForkJoinTask<Void> submit(int count, int clues, Difficulty difficulty, long seed, Consumer<Board> sink) {
+        if (count < 0) {
+            throw new IllegalArgumentException("A quantidade de jogos não pode ser negativa: " + count);
+        }
+        if (clues < 0 || clues > 81) {
+            throw new IllegalArgumentException("A quantidade de valores iniciais deve estar entre 0 e 81: " + clues);
+        }
+        return pool.submit(new Batch(count, clues, difficulty, new SplittableRandom(seed), sink, null, 0));
+    }
+
+    /**
+     * Gera um lote de jogos em paralelo diretamente em uma {@link BoardArena} e aguarda o término.
+     *
+     * Os jogos são os mesmos que {@link #generate(int, int, Difficulty, long, Consumer)} produziria com a
+     * mesma semente, mas cada um é gravado em um registro consecutivo da arena, na ordem da árvore de
+     * divisões, em vez de ser entregue como um novo {@link Board}. Para lotes de milhões de jogos, isso
+     * evita milhões de objetos de vida longa e as pausas de coleta de lixo que eles causam: a arena guarda
+     * um jogo 9x9 em 81 bytes, em poucos vetores grandes.
+     *
+     * @param arena A arena de destino, que define também o tamanho dos tabuleiros.
+     * @param count A quantidade de jogos a gerar.
+     * @param clues A quantidade de valores iniciais de cada jogo (de 0 ao número de células).
+     * @param difficulty O nível de dificuldade de cada jogo.
+     * @param seed A semente do lote.
+     * @return O número do registro do primeiro jogo; os demais ocupam os {@code count - 1} registros seguintes.
+     *
+     * @throws IllegalArgumentException Se {@code count} for negativo ou {@code clues} estiver fora do intervalo.
+     */
+    public int generate(BoardArena arena, int count, int clues, Difficulty difficulty, long seed) {
+        int boxSize = arena.getBoxSize();
+        int total = boxSize * boxSize * boxSize * boxSize;
+        if (count < 0) {
+            throw new IllegalArgumentException("A quantidade de jogos não pode ser negativa: " + count);
+        }
+        if (clues < 0 || clues > total) {
+            throw new IllegalArgumentException("A quantidade de valores iniciais deve estar entre 0 e " + total + ": " + clues);
+        }
+        int first = arena.allocate(count);
+        pool.submit(new Batch(count, clues, difficulty, new SplittableRandom(seed), null, arena, first)).join();
+        return first;
+    }
+
+    private static class Batch extends RecursiveAction {
+        private final int count;
+        private final int clues;
+        private final Difficulty difficulty;
+        private final SplittableRandom random;
+        private final Consumer<Board> sink;
+        private final BoardArena arena;
+        private final int first;
+
+        Batch(int count, int clues, Difficulty difficulty, SplittableRandom random, Consumer<Board> sink, BoardArena arena, int first) {
+            this.count = count;
+            this.clues = clues;
+            this.difficulty = difficulty;
+            this.random = random;
+            this.sink = sink;
+            this.arena = arena;
+            this.first = first;
+        }
+
+        @Override
+        protected void compute() {
+            if (count <= LEAF_SIZE) {
+                for (int i = 0; i < count; i++) {
+                    if (arena == null) {
+                        sink.accept(Generator.generate(clues, difficulty, random));
+                    } else {
+                        arena.setGivens(first + i, Generator.generateCells(arena.getBoxSize(), clues, difficulty, random));
+                    }
+                }
+                return;
+            }
+            int half = count / 2;
+            SplittableRandom other = random.split();
+            invokeAll(new Batch(half, clues, difficulty, random, sink, arena, first),
+                    new Batch(count - half, clues, difficulty, other, sink, arena, first + half));
+        }
+    }
+}
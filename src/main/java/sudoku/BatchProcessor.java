@@ -0,0 +1,281 @@
+package sudoku;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class BatchProcessor {
+    private static final int CHUNK_SIZE = 1024;
+    private static final ThreadLocal<Solver> SOLVERS = ThreadLocal.withInitial(Solver::new);
+    private static final ThreadLocal<Canonicalizer> CANONICALIZERS = ThreadLocal.withInitial(Canonicalizer::new);
+    private static final ThreadLocal<Board[]> SCRATCH = ThreadLocal.withInitial(() -> new Board[] {new Board(), new Board()});
+    private static final List<String> END = new ArrayList<>();
+
+    /**
+     * A operação aplicada a cada jogo do arquivo.
+     */
+    public enum Mode {
+        /**
+         * Resolve o jogo e escreve a solução no formato de linha, ou {@code sem-solucao}.
+         */
+        SOLVE,
+        /**
+         * Classifica o jogo como {@code unica}, {@code multiplas}, {@code sem-solucao} ou {@code conflito}.
+         */
+        VALIDATE,
+        /**
+         * Escreve o jogo apenas se nenhum jogo equivalente a ele (pelas simetrias do sudoku) apareceu antes
+         * na entrada. Jogos repetidos são omitidos da saída.
+         */
+        DEDUP
+    }
+
+    private final Mode mode;
+    private final int threads;
+    private final DedupIndex index = new DedupIndex();
+    private long processed;
+
+    /**
+     * Construtor da classe BatchProcessor.
+     *
+     * @param mode A operação aplicada a cada jogo.
+     * @param threads O número de threads de processamento.
+     */
+    public BatchProcessor(Mode mode, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("O número de threads deve ser positivo: " + threads);
+        }
+        this.mode = mode;
+        this.threads = threads;
+    }
+
+    /**
+     * Executa o modo em lote a partir dos argumentos de linha de comando.
+     *
+     * Uso: {@code solve|validate|dedup [entrada|-] [saida|-] [--threads N] [--metrics text|json]}. A entrada
+     * e a saída padrão são usadas quando os caminhos são omitidos ou iguais a {@code -}. Ao final, a vazão
+     * é informada na saída de erro. Com {@code --metrics}, a coleta de {@link Metrics} é ligada e as
+     * latências e contadores são impressos na saída de erro ao final, como texto ou JSON.
+     *
+     * @param args Os argumentos de linha de comando.
+     * @return O código de saída do processo: 0 em caso de sucesso, 1 em caso de erro de uso ou de leitura.
+     */
+    public static int run(String[] args) {
+        Mode mode;
+        String input = "-";
+        String output = "-";
+        int threads = Runtime.getRuntime().availableProcessors();
+        String metrics = null;
+        try {
+            mode = Mode.valueOf(args[0].toUpperCase(Locale.ROOT));
+            List<String> paths = new ArrayList<>();
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[++i]);
+                    if (threads < 1) {
+                        throw new IllegalArgumentException("O número de threads deve ser positivo: " + threads);
+                    }
+                } else if (args[i].equals("--metrics")) {
+                    metrics = args[++i];
+                    if (!metrics.equals("text") && !metrics.equals("json")) {
+                        throw new IllegalArgumentException("Formato de métricas inválido: " + metrics);
+                    }
+                } else {
+                    paths.add(args[i]);
+                }
+            }
+            if (paths.size() > 0) {
+                input = paths.get(0);
+            }
+            if (paths.size() > 1) {
+                output = paths.get(1);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Uso: solve|validate|dedup [entrada|-] [saida|-] [--threads N] [--metrics text|json]");
+            return 1;
+        }
+
+        try (BufferedReader reader = input.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII))
+                    : new BufferedReader(new InputStreamReader(Files.newInputStream(Path.of(input)), StandardCharsets.US_ASCII));
+             Writer writer = output.equals("-")
+                    ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII))
+                    : Files.newBufferedWriter(Path.of(output), StandardCharsets.US_ASCII)) {
+            BatchProcessor processor = new BatchProcessor(mode, threads);
+            if (metrics != null) {
+                Metrics.setEnabled(true);
+            }
+            long start = System.nanoTime();
+            processor.process(reader, writer);
+            writer.flush();
+            processor.printThroughput(System.nanoTime() - start, System.err);
+            if (metrics != null) {
+                Metrics.export(metrics.equals("json")
+                        ? new JsonMetricsExporter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8))
+                        : new TextMetricsExporter(System.err));
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Processa todos os jogos de uma entrada, um por linha, escrevendo um resultado por linha na mesma ordem.
+     *
+     * O processamento é um pipeline de três etapas. A leitura agrupa as linhas em blocos de 1024 e envia
+     * cada bloco para um pool de threads, onde as linhas são interpretadas e resolvidas ou validadas, com
+     * um {@link Solver} e dois {@link Board} reaproveitados por thread, de forma que nenhum tabuleiro é
+     * alocado por jogo. A thread chamadora escreve os resultados dos blocos na ordem de leitura.
+     * Os blocos em andamento passam por uma fila limitada a duas vezes o número de threads: quando a
+     * escrita ou o processamento ficam para trás, a leitura é bloqueada. Assim, a memória usada é limitada
+     * independentemente do tamanho da entrada. Linhas em branco são ignoradas e linhas que não estão no
+     * formato de 81 caracteres produzem {@code malformado}.
+     *
+     * No modo {@link Mode#DEDUP}, as threads de processamento calculam a forma canônica de cada jogo, que
+     * é a parte cara, e a thread de escrita apenas a consulta em um {@link DedupIndex}. Como a escrita
+     * segue a ordem de leitura, o jogo mantido de cada grupo de equivalentes é sempre o primeiro da entrada.
+     * Jogos que não podem ser canonizados, como os com menos de 17 valores, produzem {@code sem-forma-canonica}.
+     *
+     * @param reader A entrada, com um jogo por linha.
+     * @param writer A saída, que recebe um resultado por jogo.
+     * @return A quantidade de jogos processados.
+     *
+     * @throws IOException Se ocorrer um erro de leitura ou de escrita.
+     */
+    public long process(BufferedReader reader, Writer writer) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        BlockingQueue<Future<List<String>>> pending = new ArrayBlockingQueue<>(2 * threads);
+        Thread producer = Thread.ofPlatform().name("batch-reader").daemon().start(() -> read(reader, workers, pending));
+        try {
+            while (true) {
+                List<String> results = pending.take().get();
+                if (results == END) {
+                    break;
+                }
+                for (String result : results) {
+                    if (mode == Mode.DEDUP && result.length() > BoardCodec.LINE_LENGTH) {
+                        if (!index.add(result.substring(0, BoardCodec.LINE_LENGTH))) {
+                            continue;
+                        }
+                        result = result.substring(BoardCodec.LINE_LENGTH);
+                    }
+                    writer.write(result);
+                    writer.write('\n');
+                }
+                processed += results.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Processamento interrompido.", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            producer.interrupt();
+            workers.shutdownNow();
+        }
+        return processed;
+    }
+
+    /**
+     * Imprime a quantidade de jogos processados e a vazão obtida.
+     *
+     * @param elapsedNanos O tempo total, em nanossegundos.
+     * @param out O destino da impressão.
+     */
+    public void printThroughput(long elapsedNanos, PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%d jogos em %.3f s (%.0f jogos/s)%n", processed, seconds, seconds > 0 ? processed / seconds : 0.0);
+    }
+
+    private void read(BufferedReader reader, ExecutorService workers, BlockingQueue<Future<List<String>>> pending) {
+        Future<List<String>> last = CompletableFuture.completedFuture(END);
+        try {
+            List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                chunk.add(line);
+                if (chunk.size() == CHUNK_SIZE) {
+                    List<String> lines = chunk;
+                    pending.put(workers.submit(() -> processChunk(lines)));
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<String> lines = chunk;
+                pending.put(workers.submit(() -> processChunk(lines)));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Inclui as exceções não verificadas, como a UncheckedIOException do leitor ou a recusa do pool:
+            // sem o marcador de fim, a thread de escrita esperaria para sempre pelo próximo bloco.
+            last = CompletableFuture.failedFuture(e);
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            pending.put(last);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> processChunk(List<String> lines) {
+        Solver solver = SOLVERS.get();
+        List<String> results = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            results.add(processLine(line, solver));
+        }
+        return results;
+    }
+
+    private String processLine(String line, Solver solver) {
+        if (!BoardCodec.isLine(line)) {
+            return "malformado";
+        }
+        Board[] scratch = SCRATCH.get();
+        Board board = scratch[0];
+        board.clear();
+        BoardCodec.fromLine(line, board);
+        if (mode == Mode.DEDUP) {
+            try {
+                return CANONICALIZERS.get().canonicalLine(board) + line;
+            } catch (IllegalArgumentException e) {
+                return "sem-forma-canonica";
+            }
+        }
+        if (mode == Mode.SOLVE) {
+            Board solution = scratch[1];
+            return board.hasConflicts() || !solver.solve(board, solution) ? "sem-solucao" : BoardCodec.toLine(solution);
+        }
+        if (board.hasConflicts()) {
+            return line + " conflito";
+        }
+        int solutions = solver.countSolutions(board, 2);
+        return line + (solutions == 0 ? " sem-solucao" : solutions == 1 ? " unica" : " multiplas");
+    }
+}
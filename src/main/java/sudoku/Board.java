@@ -1,57 +1,216 @@
 package sudoku;
+import java.io.PrintStream;
+import java.util.Arrays;
 
 /**
  *
  * @author caiofdev
  */
 public class Board {
-    private int [][] board;
-    private boolean[][] autoGeneratedValues;
+    /**
+     * Menor lado de caixa aceito (tabuleiro 4x4).
+     */
+    public static final int MIN_BOX_SIZE = 2;
+
+    /**
+     * Maior lado de caixa aceito (tabuleiro 25x25). Com 25 dígitos, as máscaras de candidatos ainda cabem em um {@code int}.
+     */
+    public static final int MAX_BOX_SIZE = 5;
+
+    /**
+     * Bits do byte de uma célula que guardam o valor (de 0 a 25).
+     */
+    static final int VALUE_BITS = 0x1F;
+
+    /**
+     * Bit do byte de uma célula que indica um valor gerado automaticamente.
+     */
+    static final int GIVEN_BIT = 0x20;
+
+    private final int boxSize;
+    private final int size;
+    private final int fullMask;
+    private final Topology topology;
+    /*
+     * As células ficam em um vetor plano, um byte por célula (valor nos bits 0-4 e marca de valor gerado
+     * no bit 5), a partir de offset. Um tabuleiro comum tem o seu próprio vetor; uma visão de BoardArena
+     * aponta para o vetor compartilhado da arena e pode ser movida de um registro para outro.
+     */
+    private byte[] cells;
+    private int offset;
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] boxMasks;
+    private final int[] unitCounts;
+    private int filledCells;
+    private int conflicts;
     /**
      * Construtor da classe Board.
      * 
-     * Este construtor inicializa a variável de instância {@code board} como uma matriz 9x9 de inteiros, 
-     * representando o tabuleiro do jogo. Cada posição da matriz é inicializada com o valor padrão de zero 
+     * Este construtor inicializa as 81 células do tabuleiro 9x9, guardadas em um vetor de bytes, 
+     * linha a linha. Cada célula é inicializada com o valor padrão de zero 
      * (que pode representar um estado vazio ou uma célula não preenchida).
      * 
-     * A matriz {@code board} pode ser usada para armazenar os estados das células do tabuleiro, 
-     * e será manipulada através de outros métodos da classe {@code Board}.
+     * As células guardam os valores do tabuleiro e a marca de valor gerado automaticamente, 
+     * e são manipuladas através de outros métodos da classe {@code Board}.
+     * 
+     * Além das células, o tabuleiro mantém máscaras de 9 bits de ocupação para cada linha, coluna e caixa 
+     * (o bit {@code value - 1} indica que o valor está presente na unidade), atualizadas a cada escrita. 
+     * Como o jogador pode inserir valores repetidos, cada máscara é acompanhada de um contador por 
+     * dígito, de forma que remover uma das repetições não apague o bit da outra.
      */
     public Board() {
-        board = new int[9][9];
+        this(3);
+    }
+
+    /**
+     * Construtor da classe Board para tabuleiros de outros tamanhos.
+     * 
+     * Um tabuleiro com caixas de lado {@code boxSize} tem {@code boxSize * boxSize} linhas, colunas, caixas 
+     * e dígitos: 4x4 para 2, 9x9 para 3, 16x16 para 4 e 25x25 para 5. As máscaras de ocupação e os 
+     * contadores funcionam da mesma forma que no tabuleiro 9x9, com um bit por dígito, de modo que 
+     * as consultas continuam em tempo constante em qualquer tamanho.
+     * 
+     * @param boxSize O lado de cada caixa, de {@link #MIN_BOX_SIZE} a {@link #MAX_BOX_SIZE}.
+     * 
+     * @throws IllegalArgumentException Se {@code boxSize} estiver fora do intervalo aceito.
+     */
+    public Board(int boxSize) {
+        this(boxSize, null, 0);
+    }
+
+    /**
+     * Construtor de uma visão sobre células guardadas em outro vetor, usado por {@link BoardArena}.
+     *
+     * @param boxSize O lado de cada caixa.
+     * @param storage O vetor com as células, ou {@code null} para um vetor próprio.
+     * @param offset A posição da primeira célula em {@code storage}.
+     */
+    Board(int boxSize, byte[] storage, int offset) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("O lado da caixa deve estar entre " + MIN_BOX_SIZE + " e " + MAX_BOX_SIZE + ": " + boxSize);
+        }
+        this.boxSize = boxSize;
+        size = boxSize * boxSize;
+        fullMask = (1 << size) - 1;
+        topology = Topology.of(boxSize);
+        rowMasks = new int[size];
+        colMasks = new int[size];
+        boxMasks = new int[size];
+        unitCounts = new int[3 * size * size];
+        if (storage == null) {
+            cells = new byte[size * size];
+        } else {
+            bind(storage, offset);
+        }
+    }
+
+    /**
+     * Passa a usar as células guardadas em {@code storage} a partir de {@code offset} e recalcula as
+     * máscaras e contadores a partir delas, em tempo proporcional ao número de células.
+     *
+     * @param storage O vetor com as células.
+     * @param offset A posição da primeira célula.
+     */
+    void bind(byte[] storage, int offset) {
+        cells = storage;
+        this.offset = offset;
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colMasks, 0);
+        Arrays.fill(boxMasks, 0);
+        Arrays.fill(unitCounts, 0);
+        filledCells = 0;
+        conflicts = 0;
+        for (int i = 0; i < size * size; i++) {
+            int value = cells[offset + i] & VALUE_BITS;
+            if (value != 0) {
+                occupy(i, value);
+            }
+        }
+    }
+
+    /**
+     * Retorna o lado de cada caixa do tabuleiro (3 no tabuleiro 9x9).
+     * 
+     * @return O lado da caixa.
+     */
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    /**
+     * Retorna o número de linhas (e de colunas, caixas e dígitos) do tabuleiro (9 no tabuleiro 9x9).
+     * 
+     * @return O lado do tabuleiro.
+     */
+    public int getSize() {
+        return size;
     }
 
     /**
      * Define um valor para uma posição específica no tabuleiro.
      * 
-     * Este método permite definir o valor de uma célula no tabuleiro representado pela matriz {@code board}.
+     * Este método permite definir o valor de uma célula no tabuleiro.
      * Ele atualiza a posição indicada pelas coordenadas {@code row} e {@code col} com o valor fornecido 
      * no parâmetro {@code value}.
      *
-     * @param row A linha da célula que será atualizada. Deve ser um valor entre 0 e 8 (inclusive).
-     * @param col A coluna da célula que será atualizada. Deve ser um valor entre 0 e 8 (inclusive).
-     * @param value O valor a ser atribuído à célula especificada. Pode ser qualquer valor inteiro.
+     * @param row A linha da célula que será atualizada. Deve ser um valor entre 0 e N-1 (inclusive), 
+     *            onde N é {@link #getSize()} (de 0 a 8 no 9x9).
+     * @param col A coluna da célula que será atualizada. Deve ser um valor entre 0 e N-1 (inclusive).
+     * @param value O valor a ser atribuído à célula especificada. Deve estar entre 1 e N, ou 0 para esvaziar a célula.
      * 
-     * @throws ArrayIndexOutOfBoundsException Se os parâmetros {@code row} ou {@code col} estiverem fora do intervalo válido (0 a 8).
+     * @throws ArrayIndexOutOfBoundsException Se os parâmetros {@code row} ou {@code col} estiverem fora do intervalo válido (0 a N-1).
+     * @throws IllegalArgumentException Se {@code value} estiver fora do intervalo de 0 a N.
      */
     public void setValue(int row, int col, int value) {
-        board[row][col] = value;
+        if (value < 0 || value > size) {
+            throw new IllegalArgumentException("Valor inválido: " + value);
+        }
+        int index = index(row, col);
+        int old = cells[index] & VALUE_BITS;
+        if (old == value) {
+            return;
+        }
+        if (old != 0) {
+            release(index - offset, old);
+        }
+        cells[index] = (byte) (cells[index] & ~VALUE_BITS | value);
+        if (value != 0) {
+            occupy(index - offset, value);
+        }
     }
 
     /**
      * Retorna o valor armazenado em uma posição específica do tabuleiro.
      * 
-     * Este método recupera o valor da célula no tabuleiro representado pela matriz {@code board},
+     * Este método recupera o valor da célula no tabuleiro,
      * localizada nas coordenadas especificadas pelos parâmetros {@code row} e {@code col}.
      *
-     * @param row A linha da célula que será acessada. Deve ser um valor entre 0 e 8 (inclusive).
-     * @param col A coluna da célula que será acessada. Deve ser um valor entre 0 e 8 (inclusive).
+     * @param row A linha da célula que será acessada. Deve ser um valor entre 0 e N-1 (inclusive), 
+     *            onde N é {@link #getSize()}.
+     * @param col A coluna da célula que será acessada. Deve ser um valor entre 0 e N-1 (inclusive).
      * @return O valor armazenado na célula especificada. O tipo retornado é {@code int}.
      * 
-     * @throws ArrayIndexOutOfBoundsException Se os parâmetros {@code row} ou {@code col} estiverem fora do intervalo válido (0 a 8).
+     * @throws ArrayIndexOutOfBoundsException Se os parâmetros {@code row} ou {@code col} estiverem fora do intervalo válido (0 a N-1).
      */
     public int getValue(int row, int col) {
-        return board[row][col];
+        return cells[index(row, col)] & VALUE_BITS;
+    }
+
+    /**
+     * Retorna o valor de uma célula pelo seu índice ({@code linha * N + coluna}), sem dividir o índice
+     * em linha e coluna. Usado pelos laços que percorrem as tabelas de {@link Topology}, cujos índices
+     * já são válidos.
+     */
+    int getValue(int cell) {
+        return cells[offset + cell] & VALUE_BITS;
+    }
+
+    /**
+     * Retorna as tabelas de unidades e vizinhos do tamanho deste tabuleiro.
+     */
+    Topology getTopology() {
+        return topology;
     }
 
     /**
@@ -67,8 +226,8 @@ public class Board {
      * @param value O valor a ser atribuído à célula especificada.
      */
     public void setAutoGeneratedValue(int row, int col, int value) {
-        board[row][col] = value;
-        autoGeneratedValues[row][col] = true;
+        setValue(row, col, value);
+        cells[index(row, col)] |= GIVEN_BIT;
     }
 
     /**
@@ -85,48 +244,221 @@ public class Board {
      * @return `true` se o valor da célula foi gerado automaticamente, `false` caso contrário.
      */
     public boolean isAutoGeneratedValue(int row, int col) {
-        return autoGeneratedValues[row][col];
+        return (cells[index(row, col)] & GIVEN_BIT) != 0;
+    }
+
+    private int index(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            throw new ArrayIndexOutOfBoundsException("Posição fora do tabuleiro: (" + row + ", " + col + ")");
+        }
+        return offset + row * size + col;
+    }
+
+    /**
+     * Verifica se um valor pode ser colocado em uma célula sem repetir a linha, a coluna ou a caixa.
+     * 
+     * A verificação é feita com uma única operação sobre as máscaras de ocupação, sem percorrer as células.
+     * Assim como nas verificações anteriores baseadas em varredura, o valor atual da própria célula é 
+     * considerado, portanto a célula deve estar vazia para que o resultado seja significativo.
+     * 
+     * @param row A linha da célula (de 0 a N-1).
+     * @param col A coluna da célula (de 0 a N-1).
+     * @param value O valor a ser verificado (de 1 a N).
+     * @return {@code true} se o valor não aparece na linha, coluna ou caixa da célula, {@code false} caso contrário.
+     */
+    public boolean canPlace(int row, int col, int value) {
+        return (getCandidates(row, col) & (1 << (value - 1))) != 0;
+    }
+
+    /**
+     * Retorna os valores candidatos de uma célula como uma máscara de N bits (9 no 9x9).
+     * 
+     * O bit {@code v - 1} está ligado se o valor {@code v} não aparece na linha, na coluna nem na 
+     * caixa da célula. O resultado é obtido combinando as três máscaras de ocupação.
+     * 
+     * @param row A linha da célula (de 0 a N-1).
+     * @param col A coluna da célula (de 0 a N-1).
+     * @return A máscara de candidatos da célula; {@code 0} se nenhum valor for possível.
+     */
+    public int getCandidates(int row, int col) {
+        return ~(rowMasks[row] | colMasks[col] | boxMasks[topology.boxOf[row * size + col]]) & fullMask;
+    }
+
+    /**
+     * Retorna a máscara de ocupação de uma linha, onde o bit {@code v - 1} indica a presença do valor {@code v}.
+     * 
+     * @param row A linha (de 0 a N-1).
+     * @return A máscara de N bits dos valores presentes na linha.
+     */
+    public int getRowMask(int row) {
+        return rowMasks[row];
+    }
+
+    /**
+     * Retorna a máscara de ocupação de uma coluna, onde o bit {@code v - 1} indica a presença do valor {@code v}.
+     * 
+     * @param col A coluna (de 0 a N-1).
+     * @return A máscara de N bits dos valores presentes na coluna.
+     */
+    public int getColumnMask(int col) {
+        return colMasks[col];
+    }
+
+    /**
+     * Retorna a máscara de ocupação de uma caixa, onde o bit {@code v - 1} indica a presença do valor {@code v}.
+     * 
+     * As caixas são numeradas de 0 a N-1, da esquerda para a direita e de cima para baixo.
+     * 
+     * @param box A caixa (de 0 a N-1).
+     * @return A máscara de N bits dos valores presentes na caixa.
+     */
+    public int getBoxMask(int box) {
+        return boxMasks[box];
+    }
+
+    /**
+     * Calcula o índice da caixa 3x3 que contém a célula indicada.
+     * 
+     * @param row A linha da célula (de 0 a 8).
+     * @param col A coluna da célula (de 0 a 8).
+     * @return O índice da caixa, de 0 a 8.
+     */
+    public static int boxIndex(int row, int col) {
+        return Topology.NINE.boxOf[row * 9 + col];
+    }
+
+    /**
+     * Calcula o índice da caixa que contém a célula indicada, para o tamanho deste tabuleiro.
+     * 
+     * @param row A linha da célula.
+     * @param col A coluna da célula.
+     * @return O índice da caixa, de 0 a {@code getSize() - 1}, da esquerda para a direita e de cima para baixo.
+     */
+    public int getBoxIndex(int row, int col) {
+        return topology.boxOf[row * size + col];
+    }
+
+    /**
+     * Indica se há algum valor repetido em uma linha, coluna ou caixa do tabuleiro.
+     * 
+     * O tabuleiro mantém um contador das unidades com repetições, atualizado a cada escrita, 
+     * de forma que esta consulta não percorre as células.
+     * 
+     * @return {@code true} se existir ao menos um conflito, {@code false} caso contrário.
+     */
+    public boolean hasConflicts() {
+        return conflicts != 0;
+    }
+
+    /**
+     * Retorna a quantidade de células vazias do tabuleiro, mantida a cada escrita.
+     * 
+     * @return O número de células com valor zero.
+     */
+    public int getEmptyCellCount() {
+        return size * size - filledCells;
+    }
+
+    /**
+     * Registra a presença de um valor nas unidades da célula, incrementando os contadores e ligando os bits.
+     */
+    private void occupy(int cell, int value) {
+        int bit = 1 << (value - 1);
+        int row = topology.rowOf[cell];
+        int col = topology.colOf[cell];
+        int box = topology.boxOf[cell];
+        countUp(row * size + value - 1);
+        countUp((size + col) * size + value - 1);
+        countUp((2 * size + box) * size + value - 1);
+        rowMasks[row] |= bit;
+        colMasks[col] |= bit;
+        boxMasks[box] |= bit;
+        filledCells++;
+    }
+
+    /**
+     * Remove a presença de um valor das unidades da célula; o bit só é desligado quando não restam repetições.
+     */
+    private void release(int cell, int value) {
+        int bit = 1 << (value - 1);
+        int row = topology.rowOf[cell];
+        int col = topology.colOf[cell];
+        int box = topology.boxOf[cell];
+        if (countDown(row * size + value - 1)) {
+            rowMasks[row] &= ~bit;
+        }
+        if (countDown((size + col) * size + value - 1)) {
+            colMasks[col] &= ~bit;
+        }
+        if (countDown((2 * size + box) * size + value - 1)) {
+            boxMasks[box] &= ~bit;
+        }
+        filledCells--;
+    }
+
+    private void countUp(int slot) {
+        if (++unitCounts[slot] == 2) {
+            conflicts++;
+        }
+    }
+
+    private boolean countDown(int slot) {
+        if (unitCounts[slot]-- == 2) {
+            conflicts--;
+        }
+        return unitCounts[slot] == 0;
+    }
+
+    /**
+     * Esvazia todas as células do tabuleiro, inclusive as geradas automaticamente, sem alocar memória.
+     * 
+     * Permite reaproveitar o mesmo tabuleiro (ou a mesma visão de uma {@link BoardArena}) para 
+     * muitos jogos em sequência, como no processamento em lote.
+     */
+    public void clear() {
+        Arrays.fill(cells, offset, offset + size * size, (byte) 0);
+        bind(cells, offset);
     }
 
     /**
      * Verifica se o tabuleiro está completamente preenchido.
      * 
-     * Esta função percorre todas as células do tabuleiro representado pela matriz 
-     * bidimensional `board`. Se qualquer célula contiver o valor `0`, o que 
-     * indica que a célula está vazia, a função retorna `false`. Caso contrário, 
-     * se todas as células estiverem preenchidas (nenhum valor `0`), a função 
-     * retorna `true`.
+     * O tabuleiro mantém a contagem de células preenchidas a cada escrita, portanto esta 
+     * verificação não percorre as células.
      * 
      * @return `true` se todas as células do tabuleiro estiverem preenchidas, 
      *         ou `false` caso contrário.
      */
     public boolean isFull() {
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                if (board[i][j] == 0) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return filledCells == size * size;
     }
 
     /**
      * Imprime o tabuleiro no console.
      * 
-     * Este método percorre a matriz {@code board} e imprime seus valores no console, 
+     * Este método percorre as células do tabuleiro e imprime seus valores no console, 
      * formatando cada linha do tabuleiro em uma nova linha no terminal. Cada valor da célula 
      * é impresso seguido de dois espaços para separar os números, e uma nova linha é adicionada
-     * após cada linha do tabuleiro para manter a estrutura 9x9.
+     * após cada linha do tabuleiro para manter a estrutura de N linhas e N colunas.
      * 
      * O método não retorna nenhum valor, mas exibe o conteúdo do tabuleiro de forma legível no console.
      */
     public void printBoard() {
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                System.out.print(board[i][j] + "  ");
+        printBoard(System.out);
+    }
+
+    /**
+     * Imprime o tabuleiro em uma saída informada, no mesmo formato de {@link #printBoard()}.
+     * 
+     * @param out A saída na qual o tabuleiro será impresso.
+     */
+    public void printBoard(PrintStream out) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int value = getValue(i, j);
+                out.print(size > 9 && value < 10 ? " " + value + "  " : value + "  ");
             }
-            System.out.println("\n");
+            out.println("\n");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package sudoku;
+import java.util.Arrays;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class BoardArena {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_BOARDS = 1 << CHUNK_BITS;
+
+    /*
+     * Os tabuleiros ficam em blocos de 4096 registros, cada bloco um único byte[] com as células de todos
+     * os seus registros em sequência, no mesmo formato usado por Board (um byte por célula). Um tabuleiro
+     * 9x9 ocupa 81 bytes, contra cerca de 700 bytes em 20 objetos de um Board comum, e um milhão de
+     * tabuleiros ocupam 245 blocos em vez de 20 milhões de objetos. A arena cresce bloco a bloco, sem
+     * copiar os blocos existentes, de forma que uma visão continua válida enquanto a arena cresce; só o
+     * índice de blocos cresce geometricamente, e cada bloco é criado quando o primeiro registro dele é reservado.
+     *
+     * allocated é volátil e escrito depois dos blocos, para que as leituras sem sincronização, que o
+     * conferem em checkSlot, vejam os blocos dos registros reservados. freed marca os registros liberados
+     * e ainda não reaproveitados, para recusar uma liberação repetida.
+     */
+    private final int boxSize;
+    private final int cellsPerBoard;
+    private volatile byte[][] chunks = new byte[0][];
+    private volatile int allocated;
+    private long[] freed = new long[0];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Construtor da classe BoardArena.
+     *
+     * @param boxSize O lado das caixas dos tabuleiros guardados (3 para 9x9).
+     *
+     * @throws IllegalArgumentException Se {@code boxSize} estiver fora do intervalo aceito por {@link Board}.
+     */
+    public BoardArena(int boxSize) {
+        if (boxSize < Board.MIN_BOX_SIZE || boxSize > Board.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("O lado da caixa deve estar entre " + Board.MIN_BOX_SIZE + " e " + Board.MAX_BOX_SIZE + ": " + boxSize);
+        }
+        this.boxSize = boxSize;
+        cellsPerBoard = boxSize * boxSize * boxSize * boxSize;
+    }
+
+    /**
+     * Reserva um registro vazio, reaproveitando um registro liberado quando houver.
+     *
+     * @return O número do registro.
+     */
+    public synchronized int allocate() {
+        if (freeCount > 0) {
+            int slot = freeSlots[--freeCount];
+            freed[slot >>> 6] &= ~(1L << slot);
+            return slot;
+        }
+        return allocate(1);
+    }
+
+    /**
+     * Reserva {@code count} registros vazios consecutivos, sem reaproveitar registros liberados.
+     *
+     * É a forma usada pela geração e pela resolução em lote, que preenchem os registros de um bloco
+     * em paralelo, cada thread nos seus próprios números de registro.
+     *
+     * @param count A quantidade de registros.
+     * @return O número do primeiro registro.
+     *
+     * @throws IllegalArgumentException Se {@code count} for negativo.
+     */
+    public synchronized int allocate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("A quantidade de registros não pode ser negativa: " + count);
+        }
+        int first = allocated;
+        int needed = (first + count + CHUNK_BOARDS - 1) >>> CHUNK_BITS;
+        byte[][] current = chunks;
+        if (needed > current.length) {
+            current = Arrays.copyOf(current, Math.max(needed, current.length * 2));
+        }
+        for (int i = first >>> CHUNK_BITS; i < needed; i++) {
+            if (current[i] == null) {
+                current[i] = new byte[CHUNK_BOARDS * cellsPerBoard];
+            }
+        }
+        chunks = current;
+        allocated = first + count;
+        return first;
+    }
+
+    /**
+     * Devolve um registro à arena. O registro é esvaziado e pode ser devolvido por {@link #allocate()}.
+     *
+     * Visões do registro não devem ser usadas depois da liberação.
+     *
+     * @param slot O número do registro.
+     *
+     * @throws IndexOutOfBoundsException Se o registro não tiver sido reservado.
+     * @throws IllegalStateException Se o registro já tiver sido liberado.
+     */
+    public synchronized void free(int slot) {
+        checkSlot(slot);
+        if (slot >>> 6 < freed.length && (freed[slot >>> 6] & 1L << slot) != 0) {
+            throw new IllegalStateException("Registro já liberado: " + slot);
+        }
+        if (slot >>> 6 >= freed.length) {
+            freed = Arrays.copyOf(freed, Math.max((slot >>> 6) + 1, freed.length * 2));
+        }
+        freed[slot >>> 6] |= 1L << slot;
+        int offset = offsetOf(slot);
+        Arrays.fill(chunkOf(slot), offset, offset + cellsPerBoard, (byte) 0);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Cria uma visão de um registro: um {@link Board} cujas células são as do registro, sem cópia.
+     *
+     * As escritas feitas na visão vão diretamente para a arena e são vistas por outras visões do mesmo
+     * registro depois que estas forem reposicionadas com {@link #bind(Board, int)}. Para percorrer muitos
+     * registros, crie uma única visão e reposicione-a, em vez de criar uma visão por registro.
+     *
+     * @param slot O número do registro.
+     * @return A visão do registro.
+     *
+     * @throws IndexOutOfBoundsException Se o registro não tiver sido reservado.
+     */
+    public Board view(int slot) {
+        checkSlot(slot);
+        return new Board(boxSize, chunkOf(slot), offsetOf(slot));
+    }
+
+    /**
+     * Reposiciona uma visão criada por {@link #view(int)} em outro registro, sem alocar memória. As
+     * máscaras da visão são recalculadas a partir das células do registro.
+     *
+     * @param view A visão, de um tabuleiro com o mesmo tamanho desta arena.
+     * @param slot O número do registro.
+     *
+     * @throws IllegalArgumentException Se a visão for de outro tamanho de tabuleiro.
+     * @throws IndexOutOfBoundsException Se o registro não tiver sido reservado.
+     */
+    public void bind(Board view, int slot) {
+        if (view.getBoxSize() != boxSize) {
+            throw new IllegalArgumentException("A visão é de um tabuleiro " + view.getSize() + "x" + view.getSize() + ".");
+        }
+        checkSlot(slot);
+        view.bind(chunkOf(slot), offsetOf(slot));
+    }
+
+    /**
+     * Escreve um jogo em formato plano no registro, com os valores preenchidos marcados como gerados automaticamente.
+     *
+     * @param slot O número do registro.
+     * @param values Os valores das células, linha a linha, com 0 para as vazias.
+     */
+    public void setGivens(int slot, int[] values) {
+        checkSlot(slot);
+        if (values.length != cellsPerBoard) {
+            throw new IllegalArgumentException("Esperados " + cellsPerBoard + " valores, mas há " + values.length);
+        }
+        byte[] chunk = chunkOf(slot);
+        int offset = offsetOf(slot);
+        for (int i = 0; i < cellsPerBoard; i++) {
+            chunk[offset + i] = (byte) (values[i] == 0 ? 0 : values[i] | Board.GIVEN_BIT);
+        }
+    }
+
+    /**
+     * Retorna o valor de uma célula de um registro, sem precisar de uma visão.
+     *
+     * @param slot O número do registro.
+     * @param cell O índice da célula ({@code linha * N + coluna}).
+     * @return O valor da célula, ou 0 se estiver vazia.
+     *
+     * @throws IndexOutOfBoundsException Se o registro não tiver sido reservado.
+     */
+    public int getValue(int slot, int cell) {
+        checkSlot(slot);
+        return chunkOf(slot)[offsetOf(slot) + cell] & Board.VALUE_BITS;
+    }
+
+    /**
+     * Retorna o lado das caixas dos tabuleiros desta arena.
+     *
+     * @return O lado da caixa.
+     */
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    /**
+     * Retorna a quantidade de registros em uso.
+     *
+     * @return O número de registros reservados e não liberados.
+     */
+    public synchronized int size() {
+        return allocated - freeCount;
+    }
+
+    /**
+     * Retorna o vetor que guarda o registro, compartilhado com os demais registros do mesmo bloco.
+     */
+    byte[] chunkOf(int slot) {
+        return chunks[slot >>> CHUNK_BITS];
+    }
+
+    /**
+     * Retorna a posição da primeira célula do registro no vetor de {@link #chunkOf(int)}.
+     */
+    int offsetOf(int slot) {
+        return (slot & (CHUNK_BOARDS - 1)) * cellsPerBoard;
+    }
+
+    /**
+     * Retorna quantos registros, a partir de {@code slot}, estão lado a lado no mesmo vetor.
+     */
+    int runLength(int slot) {
+        return CHUNK_BOARDS - (slot & (CHUNK_BOARDS - 1));
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= allocated) {
+            throw new IndexOutOfBoundsException("Registro inexistente: " + slot);
+        }
+    }
+}
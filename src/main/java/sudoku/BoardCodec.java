@@ -0,0 +1,233 @@
+package sudoku;
+import java.nio.ByteBuffer;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class BoardCodec {
+    /**
+     * Tamanho, em caracteres, de um tabuleiro no formato de linha.
+     */
+    public static final int LINE_LENGTH = 81;
+
+    /**
+     * Tamanho, em bytes, de um tabuleiro no formato binário compacto: 41 bytes com os valores
+     * (4 bits por célula) seguidos de 11 bytes com o mapa de valores iniciais (1 bit por célula).
+     */
+    public static final int RECORD_SIZE = 52;
+
+    private static final int VALUES_SIZE = 41;
+
+    /**
+     * Converte um tabuleiro para o formato de linha de 81 caracteres.
+     *
+     * As células são escritas linha a linha, com os dígitos de 1 a 9 e {@code .} para as células vazias.
+     * Este é o formato usual de troca de jogos de Sudoku; ele não distingue valores iniciais de jogadas.
+     *
+     * @param board O tabuleiro a ser convertido.
+     * @return A linha de 81 caracteres que representa o tabuleiro.
+     *
+     * @throws IllegalArgumentException Se o tabuleiro não for 9x9.
+     */
+    public static String toLine(Board board) {
+        checkSize(board);
+        char[] line = new char[LINE_LENGTH];
+        for (int i = 0; i < LINE_LENGTH; i++) {
+            int value = board.getValue(i / 9, i % 9);
+            line[i] = value == 0 ? '.' : (char) ('0' + value);
+        }
+        return new String(line);
+    }
+
+    /**
+     * Lê um tabuleiro no formato de linha de 81 caracteres.
+     *
+     * São aceitos os dígitos de 1 a 9 e, para células vazias, {@code .} ou {@code 0}. Todas as células
+     * preenchidas são marcadas como valores iniciais (geradas automaticamente), já que o formato
+     * descreve um jogo a ser resolvido.
+     *
+     * @param line A linha a ser lida.
+     * @return O tabuleiro correspondente.
+     *
+     * @throws IllegalArgumentException Se a linha não tiver 81 caracteres ou contiver caracteres inválidos.
+     */
+    public static Board fromLine(CharSequence line) {
+        Board board = new Board();
+        fromLine(line, board);
+        return board;
+    }
+
+    /**
+     * Lê um tabuleiro no formato de linha de 81 caracteres para um tabuleiro existente, sem alocar memória.
+     *
+     * @param line A linha a ser lida.
+     * @param board O tabuleiro de destino, 9x9 e vazio (por exemplo, após {@link Board#clear()}).
+     *
+     * @throws IllegalArgumentException Se a linha não tiver 81 caracteres ou contiver caracteres inválidos,
+     *                                  ou se o tabuleiro não for 9x9.
+     */
+    public static void fromLine(CharSequence line, Board board) {
+        checkSize(board);
+        if (line.length() != LINE_LENGTH) {
+            throw new IllegalArgumentException("A linha deve ter 81 caracteres, mas tem " + line.length());
+        }
+        for (int i = 0; i < LINE_LENGTH; i++) {
+            char c = line.charAt(i);
+            if (c >= '1' && c <= '9') {
+                board.setAutoGeneratedValue(i / 9, i % 9, c - '0');
+            } else if (c != '.' && c != '0') {
+                throw new IllegalArgumentException("Caractere inválido na posição " + (i + 1) + ": " + c);
+            }
+        }
+    }
+
+    /**
+     * Indica se um texto está no formato de linha de 81 caracteres.
+     *
+     * @param text O texto a ser verificado.
+     * @return {@code true} se o texto tem 81 caracteres, todos dígitos ou {@code .}.
+     */
+    public static boolean isLine(CharSequence text) {
+        if (text.length() != LINE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LINE_LENGTH; i++) {
+            char c = text.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Escreve um tabuleiro no formato binário compacto, a partir da posição atual do buffer.
+     *
+     * Os valores são gravados dois por byte (a primeira célula do par no nibble alto), seguidos do
+     * mapa de bits das células marcadas como valores iniciais, oito células por byte a partir do bit
+     * mais significativo. A escrita é feita diretamente no buffer, sem cópias intermediárias, e a
+     * posição avança {@link #RECORD_SIZE} bytes.
+     *
+     * @param board O tabuleiro a ser gravado.
+     * @param buffer O buffer de destino, com ao menos {@link #RECORD_SIZE} bytes restantes.
+     */
+    public static void write(Board board, ByteBuffer buffer) {
+        int position = buffer.position();
+        write(board, buffer, position);
+        buffer.position(position + RECORD_SIZE);
+    }
+
+    /**
+     * Escreve um tabuleiro no formato binário compacto em uma posição absoluta do buffer, sem alterar
+     * a posição atual.
+     *
+     * @param board O tabuleiro a ser gravado.
+     * @param buffer O buffer de destino.
+     * @param offset A posição do primeiro byte do registro.
+     *
+     * @throws IllegalArgumentException Se o tabuleiro não for 9x9.
+     */
+    public static void write(Board board, ByteBuffer buffer, int offset) {
+        checkSize(board);
+        for (int i = 0; i < VALUES_SIZE; i++) {
+            int high = board.getValue((2 * i) / 9, (2 * i) % 9);
+            int low = 2 * i + 1 < 81 ? board.getValue((2 * i + 1) / 9, (2 * i + 1) % 9) : 0;
+            buffer.put(offset + i, (byte) (high << 4 | low));
+        }
+        for (int i = 0; i < RECORD_SIZE - VALUES_SIZE; i++) {
+            int bits = 0;
+            for (int j = 0; j < 8; j++) {
+                int cell = i * 8 + j;
+                if (cell < 81 && board.isAutoGeneratedValue(cell / 9, cell % 9)) {
+                    bits |= 0x80 >>> j;
+                }
+            }
+            buffer.put(offset + VALUES_SIZE + i, (byte) bits);
+        }
+    }
+
+    /**
+     * Lê um tabuleiro no formato binário compacto, a partir da posição atual do buffer, que avança
+     * {@link #RECORD_SIZE} bytes.
+     *
+     * @param buffer O buffer de origem.
+     * @return O tabuleiro lido.
+     *
+     * @throws IllegalArgumentException Se o registro contiver um valor fora do intervalo de 0 a 9.
+     */
+    public static Board read(ByteBuffer buffer) {
+        int position = buffer.position();
+        Board board = read(buffer, position);
+        buffer.position(position + RECORD_SIZE);
+        return board;
+    }
+
+    /**
+     * Lê um tabuleiro no formato binário compacto em uma posição absoluta do buffer, sem alterar a
+     * posição atual. Os bytes são lidos diretamente do buffer, o que permite ler registros de um
+     * arquivo mapeado em memória sem copiá-los.
+     *
+     * @param buffer O buffer de origem.
+     * @param offset A posição do primeiro byte do registro.
+     * @return O tabuleiro lido.
+     *
+     * @throws IllegalArgumentException Se o registro contiver um valor fora do intervalo de 0 a 9.
+     */
+    public static Board read(ByteBuffer buffer, int offset) {
+        Board board = new Board();
+        for (int cell = 0; cell < 81; cell++) {
+            int packed = buffer.get(offset + cell / 2);
+            int value = (cell & 1) == 0 ? (packed >>> 4) & 0xF : packed & 0xF;
+            if (value == 0) {
+                continue;
+            }
+            int bits = buffer.get(offset + VALUES_SIZE + cell / 8);
+            if ((bits & (0x80 >>> (cell % 8))) != 0) {
+                board.setAutoGeneratedValue(cell / 9, cell % 9, value);
+            } else {
+                board.setValue(cell / 9, cell % 9, value);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Os dois formatos foram definidos para o tabuleiro 9x9 e são usados nos arquivos de jogos e no log de jogadas.
+     */
+    private static void checkSize(Board board) {
+        if (board.getSize() != 9) {
+            throw new IllegalArgumentException("O formato só comporta tabuleiros 9x9, mas o tabuleiro é " + board.getSize() + "x" + board.getSize());
+        }
+    }
+
+    /**
+     * Altera uma célula de um registro no formato binário compacto guardado em um vetor, sem decodificá-lo.
+     *
+     * @param record O vetor com o registro, a partir da posição 0.
+     * @param cell O índice da célula ({@code linha * 9 + coluna}).
+     * @param value O novo valor (de 0 a 9).
+     * @param given Se a célula deve ser marcada como valor inicial.
+     */
+    static void setCell(byte[] record, int cell, int value, boolean given) {
+        int shift = (cell & 1) == 0 ? 4 : 0;
+        record[cell / 2] = (byte) (record[cell / 2] & ~(0xF << shift) | value << shift);
+        int bit = 0x80 >>> (cell % 8);
+        if (given) {
+            record[VALUES_SIZE + cell / 8] |= (byte) bit;
+        } else {
+            record[VALUES_SIZE + cell / 8] &= (byte) ~bit;
+        }
+    }
+
+    /**
+     * Verifica se uma célula de um registro no formato binário compacto está marcada como valor inicial.
+     *
+     * @param record O vetor com o registro, a partir da posição 0.
+     * @param cell O índice da célula ({@code linha * 9 + coluna}).
+     * @return {@code true} se a célula for um valor inicial.
+     */
+    static boolean isGiven(byte[] record, int cell) {
+        return (record[VALUES_SIZE + cell / 8] & (0x80 >>> (cell % 8))) != 0;
+    }
+}
@@ -0,0 +1,221 @@
+package sudoku;
+import java.util.Arrays;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class Canonicalizer {
+    private static final int[][] PERMUTATIONS_OF_3 = {
+        {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+    };
+    private static final int[][] COLUMN_ORDERS = new int[1296][9];
+    private static final int MIN_CLUES = 17;
+    private static final int MAX_FRONTIER = 1 << 19;
+
+    static {
+        int p = 0;
+        for (int[] stacks : PERMUTATIONS_OF_3) {
+            for (int[] first : PERMUTATIONS_OF_3) {
+                for (int[] second : PERMUTATIONS_OF_3) {
+                    for (int[] third : PERMUTATIONS_OF_3) {
+                        int[][] within = {first, second, third};
+                        for (int col = 0; col < 9; col++) {
+                            COLUMN_ORDERS[p][col] = stacks[col / 3] * 3 + within[col / 3][col % 3];
+                        }
+                        p++;
+                    }
+                }
+            }
+        }
+    }
+
+    private final int[][] grids = new int[2][81];
+    private final int[] best = new int[81];
+    private final int[] row = new int[9];
+    private final int[] map = new int[10];
+    private final int[] noLabels = new int[10];
+    private int nextLabel;
+    private Frontier current = new Frontier(2 * COLUMN_ORDERS.length);
+    private Frontier next = new Frontier(2 * COLUMN_ORDERS.length);
+
+    /**
+     * Calcula a forma canônica de um jogo, no formato de linha de 81 caracteres.
+     *
+     * Dois jogos são equivalentes quando um pode ser obtido do outro por operações que preservam as
+     * regras: trocar os dígitos entre si, permutar as linhas dentro de uma faixa de caixas, permutar as
+     * faixas, fazer o mesmo com as colunas e as pilhas de caixas, e transpor o tabuleiro. A forma
+     * canônica é o menor, em ordem lexicográfica (com as células vazias valendo 0), de todos os
+     * tabuleiros equivalentes; jogos equivalentes têm, portanto, a mesma forma canônica.
+     *
+     * O grupo tem mais de três milhões de transformações de linhas e colunas, e testá-las uma a uma
+     * custaria centenas de milissegundos por jogo. Em vez disso, a forma é construída linha a linha:
+     * para cada linha de saída, são mantidas apenas as combinações parciais (transposição, linhas já
+     * escolhidas e ordem das colunas) que produzem o menor prefixo até ali, e as demais são descartadas.
+     * A troca de dígitos não precisa ser enumerada, pois o menor resultado numera os dígitos na ordem
+     * em que aparecem, e essa numeração depende apenas do prefixo. Para jogos típicos, restam poucas
+     * combinações após as primeiras linhas e a forma é obtida em cerca de um milissegundo.
+     *
+     * Em jogos com muitas linhas e colunas vazias, quase todas as combinações empatam e o número delas
+     * cresce a cada linha (um tabuleiro vazio passaria de três milhões). Por isso são recusados os jogos
+     * com menos de 17 valores, o mínimo de um jogo com solução única, e os que ainda assim ultrapassam
+     * 524.288 combinações em alguma linha.
+     *
+     * Uma instância reutiliza os seus vetores entre chamadas e não é segura para uso concorrente.
+     *
+     * @param board O jogo, em um tabuleiro 9x9. Não é modificado.
+     * @return A linha de 81 caracteres da forma canônica, com {@code .} nas células vazias.
+     *
+     * @throws IllegalArgumentException Se o tabuleiro não for 9x9, tiver menos de 17 valores ou combinações
+     *                                  equivalentes demais.
+     */
+    public String canonicalLine(Board board) {
+        if (board.getSize() != 9) {
+            throw new IllegalArgumentException("Apenas tabuleiros 9x9 podem ser canonizados: " + board.getSize() + "x" + board.getSize());
+        }
+        int clues = 81 - board.getEmptyCellCount();
+        if (clues < MIN_CLUES) {
+            throw new IllegalArgumentException("O jogo deve ter ao menos " + MIN_CLUES + " valores para ser canonizado: " + clues);
+        }
+        for (int i = 0; i < 81; i++) {
+            grids[0][i] = board.getValue(i / 9, i % 9);
+            grids[1][i] = board.getValue(i % 9, i / 9);
+        }
+        canonicalize();
+        char[] line = new char[81];
+        for (int i = 0; i < 81; i++) {
+            line[i] = best[i] == 0 ? '.' : (char) ('0' + best[i]);
+        }
+        return new String(line);
+    }
+
+    /**
+     * Calcula a forma canônica de um jogo e a devolve como um novo tabuleiro, com todos os valores
+     * marcados como gerados automaticamente.
+     *
+     * @param board O jogo, em um tabuleiro 9x9. Não é modificado.
+     * @return O tabuleiro da forma canônica.
+     *
+     * @throws IllegalArgumentException Nos mesmos casos de {@link #canonicalLine(Board)}.
+     */
+    public Board canonicalize(Board board) {
+        return BoardCodec.fromLine(canonicalLine(board));
+    }
+
+    private void canonicalize() {
+        current.size = 0;
+        for (int t = 0; t < 2; t++) {
+            for (int p = 0; p < COLUMN_ORDERS.length; p++) {
+                current.add(t, p, 0, -1, noLabels, 1);
+            }
+        }
+        for (int k = 0; k < 9; k++) {
+            next.size = 0;
+            boolean first = true;
+            for (int c = 0; c < current.size; c++) {
+                int used = current.rows[c];
+                int band = current.bands[c];
+                int from = k % 3 == 0 ? 0 : band * 3;
+                int to = k % 3 == 0 ? 9 : band * 3 + 3;
+                for (int r = from; r < to; r++) {
+                    if ((used & (1 << r)) != 0 || (k % 3 == 0 && (used & (7 << (r / 3 * 3))) != 0)) {
+                        continue;
+                    }
+                    int order = compare(c, r, k, first);
+                    if (order > 0) {
+                        continue;
+                    }
+                    if (order < 0) {
+                        next.size = 0;
+                        System.arraycopy(row, 0, best, k * 9, 9);
+                        first = false;
+                    }
+                    next.add(current.transposed[c], current.orders[c], used | 1 << r, r / 3, map, nextLabel);
+                    if (next.size > MAX_FRONTIER) {
+                        current = new Frontier(2 * COLUMN_ORDERS.length);
+                        next = new Frontier(2 * COLUMN_ORDERS.length);
+                        throw new IllegalArgumentException("O jogo tem combinações equivalentes demais para ser canonizado.");
+                    }
+                }
+            }
+            Frontier swap = current;
+            current = next;
+            next = swap;
+        }
+    }
+
+    /**
+     * Monta a linha {@code r} da combinação {@code c} com a numeração de dígitos da combinação e a
+     * compara com a melhor linha {@code k} já encontrada. A linha e a numeração resultante ficam em
+     * {@code row}, {@code map} e {@code nextLabel}.
+     *
+     * @return Um valor negativo se a linha é menor (ou se ainda não há melhor), zero se é igual e positivo se é maior.
+     */
+    private int compare(int c, int r, int k, boolean first) {
+        int[] grid = grids[current.transposed[c]];
+        int[] order = COLUMN_ORDERS[current.orders[c]];
+        System.arraycopy(current.maps, c * 10, map, 0, 10);
+        int label = current.nextLabels[c];
+        int result = first ? -1 : 0;
+        for (int j = 0; j < 9; j++) {
+            int value = grid[r * 9 + order[j]];
+            if (value != 0) {
+                if (map[value] == 0) {
+                    map[value] = label++;
+                }
+                value = map[value];
+            }
+            row[j] = value;
+            if (result == 0) {
+                int diff = value - best[k * 9 + j];
+                if (diff > 0) {
+                    return 1;
+                }
+                result = diff;
+            }
+        }
+        nextLabel = label;
+        return result;
+    }
+
+    /**
+     * As combinações parciais de uma etapa, em vetores paralelos que crescem conforme a necessidade.
+     */
+    private static final class Frontier {
+        int size;
+        int[] transposed;
+        int[] orders;
+        int[] rows;
+        int[] bands;
+        int[] nextLabels;
+        int[] maps;
+
+        Frontier(int capacity) {
+            transposed = new int[capacity];
+            orders = new int[capacity];
+            rows = new int[capacity];
+            bands = new int[capacity];
+            nextLabels = new int[capacity];
+            maps = new int[capacity * 10];
+        }
+
+        void add(int t, int order, int used, int band, int[] map, int nextLabel) {
+            if (size == orders.length) {
+                int capacity = size * 2;
+                transposed = Arrays.copyOf(transposed, capacity);
+                orders = Arrays.copyOf(orders, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+                bands = Arrays.copyOf(bands, capacity);
+                nextLabels = Arrays.copyOf(nextLabels, capacity);
+                maps = Arrays.copyOf(maps, capacity * 10);
+            }
+            transposed[size] = t;
+            orders[size] = order;
+            rows[size] = used;
+            bands[size] = band;
+            nextLabels[size] = nextLabel;
+            System.arraycopy(map, 0, maps, size * 10, 10);
+            size++;
+        }
+    }
+}
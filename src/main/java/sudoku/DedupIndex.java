@@ -0,0 +1,172 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class DedupIndex {
+    private static final ThreadLocal<Canonicalizer> CANONICALIZERS = ThreadLocal.withInitial(Canonicalizer::new);
+    private static final int MIN_CAPACITY = 16;
+
+    /*
+     * Tabela de endereçamento aberto com sondagem linear. Cada posição ocupa dois longs consecutivos com a
+     * impressão digital de 128 bits de uma forma canônica; o par (0, 0) marca uma posição vazia e nunca é
+     * produzido por fingerprint. A tabela dobra de tamanho quando passa da metade da ocupação.
+     */
+    private long[] slots;
+    private int mask;
+    private int size;
+
+    /**
+     * Construtor da classe DedupIndex.
+     */
+    public DedupIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Construtor da classe DedupIndex com a quantidade esperada de jogos, evitando redimensionamentos.
+     *
+     * @param expectedSize A quantidade de jogos distintos que se espera guardar.
+     */
+    public DedupIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize) * 2 - 1) * 2;
+        slots = new long[capacity * 2];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adiciona um jogo ao índice, se nenhum jogo equivalente a ele já tiver sido adicionado.
+     *
+     * A forma canônica do jogo é calculada por {@link Canonicalizer}, fora da trava do índice e com uma
+     * instância por thread, de modo que várias threads podem adicionar jogos ao mesmo tempo, por exemplo
+     * como {@code sink} de {@link BatchGenerator}.
+     *
+     * @param board O jogo, em um tabuleiro 9x9.
+     * @return {@code true} se o jogo é novo; {@code false} se é equivalente a um jogo já adicionado.
+     *
+     * @throws IllegalArgumentException Se o jogo não puder ser canonizado (ver {@link Canonicalizer#canonicalLine(Board)}).
+     */
+    public boolean add(Board board) {
+        return add(CANONICALIZERS.get().canonicalLine(board));
+    }
+
+    /**
+     * Adiciona uma forma canônica já calculada ao índice.
+     *
+     * O índice guarda apenas uma impressão digital de 128 bits de cada forma, e não a forma em si, o que
+     * mantém um milhão de jogos em cerca de 32 MB. A chance de dois jogos distintos terem a mesma impressão
+     * digital é da ordem de 10^-26 para um milhão de jogos, desprezível na prática. Cada inserção custa
+     * tempo constante em média, com o custo dominado pelo cálculo da forma canônica.
+     *
+     * @param canonicalLine Uma linha de 81 caracteres produzida por {@link Canonicalizer#canonicalLine(Board)}.
+     * @return {@code true} se a forma é nova; {@code false} se já estava no índice.
+     *
+     * @throws IllegalArgumentException Se a linha não tiver 81 caracteres.
+     */
+    public boolean add(CharSequence canonicalLine) {
+        long[] fingerprint = fingerprint(canonicalLine);
+        synchronized (this) {
+            if (insert(slots, mask, fingerprint[0], fingerprint[1])) {
+                size++;
+                if (size * 2 > mask + 1) {
+                    grow();
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Verifica se um jogo equivalente ao informado já foi adicionado.
+     *
+     * @param board O jogo, em um tabuleiro 9x9.
+     * @return {@code true} se há um jogo equivalente no índice.
+     *
+     * @throws IllegalArgumentException Se o jogo não puder ser canonizado (ver {@link Canonicalizer#canonicalLine(Board)}).
+     */
+    public boolean contains(Board board) {
+        long[] fingerprint = fingerprint(CANONICALIZERS.get().canonicalLine(board));
+        synchronized (this) {
+            int slot = (int) fingerprint[0] & mask;
+            while (slots[2 * slot] != 0 || slots[2 * slot + 1] != 0) {
+                if (slots[2 * slot] == fingerprint[0] && slots[2 * slot + 1] == fingerprint[1]) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de jogos distintos no índice.
+     *
+     * @return O número de formas canônicas adicionadas.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] slots, int mask, long high, long low) {
+        int slot = (int) high & mask;
+        while (slots[2 * slot] != 0 || slots[2 * slot + 1] != 0) {
+            if (slots[2 * slot] == high && slots[2 * slot + 1] == low) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[2 * slot] = high;
+        slots[2 * slot + 1] = low;
+        return true;
+    }
+
+    private void grow() {
+        int newMask = mask * 2 + 1;
+        long[] newSlots = new long[(newMask + 1) * 2];
+        for (int slot = 0; slot <= mask; slot++) {
+            if (slots[2 * slot] != 0 || slots[2 * slot + 1] != 0) {
+                insert(newSlots, newMask, slots[2 * slot], slots[2 * slot + 1]);
+            }
+        }
+        slots = newSlots;
+        mask = newMask;
+    }
+
+    /**
+     * Calcula a impressão digital de 128 bits de uma linha, combinando cada linha do tabuleiro (nove
+     * dígitos de 4 bits) em dois acumuladores independentes com o embaralhamento final do MurmurHash3.
+     */
+    private static long[] fingerprint(CharSequence line) {
+        if (line.length() != BoardCodec.LINE_LENGTH) {
+            throw new IllegalArgumentException("A forma canônica deve ter 81 caracteres: " + line.length());
+        }
+        long high = 0x9E3779B97F4A7C15L;
+        long low = 0xC2B2AE3D27D4EB4FL;
+        for (int row = 0; row < 9; row++) {
+            long word = row;
+            for (int col = 0; col < 9; col++) {
+                char c = line.charAt(row * 9 + col);
+                word = word << 4 | (c >= '1' && c <= '9' ? c - '0' : 0);
+            }
+            high = mix(high ^ word) * 0xFF51AFD7ED558CCDL;
+            low = mix(low + word * 0xC4CEB9FE1A85EC53L) ^ high;
+        }
+        high = mix(high);
+        low = mix(low);
+        if (high == 0 && low == 0) {
+            low = 1;
+        }
+        return new long[] {high, low};
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
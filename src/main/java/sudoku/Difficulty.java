@@ -0,0 +1,90 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+public enum Difficulty {
+    EASY(40, 3),
+    MEDIUM(32, 2),
+    HARD(27, 1),
+    EXPERT(22, 0);
+
+    private final int defaultClues;
+    private final int minCluesPerUnit;
+
+    /**
+     * Construtor do nível de dificuldade.
+     *
+     * Cada nível define a quantidade de valores iniciais usada quando nenhuma é informada e o número
+     * mínimo de valores iniciais que o gerador deve manter em cada linha e em cada coluna ao remover
+     * células. Quanto menor esse mínimo, mais concentradas podem ficar as lacunas e mais difícil tende
+     * a ser o jogo.
+     *
+     * @param defaultClues A quantidade padrão de valores iniciais do nível.
+     * @param minCluesPerUnit O mínimo de valores iniciais mantidos por linha e por coluna.
+     */
+    Difficulty(int defaultClues, int minCluesPerUnit) {
+        this.defaultClues = defaultClues;
+        this.minCluesPerUnit = minCluesPerUnit;
+    }
+
+    /**
+     * Retorna a quantidade padrão de valores iniciais para este nível.
+     *
+     * @return O número de valores iniciais sugerido.
+     */
+    public int getDefaultClues() {
+        return defaultClues;
+    }
+
+    /**
+     * Retorna o número mínimo de valores iniciais mantidos em cada linha e em cada coluna.
+     *
+     * @return O mínimo de valores iniciais por unidade.
+     */
+    public int getMinCluesPerUnit() {
+        return minCluesPerUnit;
+    }
+
+    /**
+     * Retorna a quantidade padrão de valores iniciais para este nível em um tabuleiro de outro tamanho.
+     *
+     * A quantidade é a mesma proporção de células do tabuleiro 9x9: por exemplo, 40 de 81 no nível
+     * fácil correspondem a 126 de 256 no 16x16.
+     *
+     * @param boxSize O lado das caixas do tabuleiro.
+     * @return O número de valores iniciais sugerido.
+     */
+    public int getDefaultClues(int boxSize) {
+        int cells = boxSize * boxSize * boxSize * boxSize;
+        return Math.round(defaultClues * cells / 81f);
+    }
+
+    /**
+     * Retorna o número mínimo de valores iniciais mantidos em cada linha e em cada coluna de um tabuleiro
+     * de outro tamanho, na mesma proporção do tabuleiro 9x9.
+     *
+     * @param boxSize O lado das caixas do tabuleiro.
+     * @return O mínimo de valores iniciais por unidade.
+     */
+    public int getMinCluesPerUnit(int boxSize) {
+        return minCluesPerUnit * boxSize * boxSize / 9;
+    }
+
+    /**
+     * Escolhe o nível cuja quantidade padrão de valores iniciais está mais próxima da informada.
+     *
+     * @param clues A quantidade de valores iniciais desejada.
+     * @return O nível de dificuldade correspondente.
+     */
+    public static Difficulty forClues(int clues) {
+        Difficulty best = EASY;
+        for (Difficulty difficulty : values()) {
+            if (Math.abs(difficulty.defaultClues - clues) < Math.abs(best.defaultClues - clues)) {
+                best = difficulty;
+            }
+        }
+        return best;
+    }
+}
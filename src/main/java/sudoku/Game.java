@@ -1,4 +1,7 @@
 package sudoku;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.Scanner;
 
 /**
@@ -8,6 +11,14 @@ import java.util.Scanner;
 public class Game {
     private Board board;
     private boolean[][] initialValues;
+    private final ValidationResult validation = new ValidationResult();
+    private HintService hints;
+    private final MoveJournal journal = new MoveJournal();
+    private GameStore store;
+    private long savedId;
+    private Difficulty generatedDifficulty;
+    private int generatedClues;
+    private PrintStream out = System.out;
     
     /**
      * Construtor da classe Game.
@@ -24,6 +35,7 @@ public class Game {
     public Game() {
         board = new Board();
         initialValues = new boolean[9][9];
+        hints = new HintService(board);
     }
     
     /**
@@ -34,20 +46,63 @@ public class Game {
      * de tamanho 9x9. A matriz {@code initialValues} pode ser usada para identificar as células 
      * que possuem valores iniciais (não modificáveis).
      * 
-     * Além disso, este construtor chama o método {@code Generator.generateRandomBoard} para gerar 
-     * um tabuleiro aleatório com um número específico de valores iniciais, definido pelo parâmetro {@code num}.
+     * Além disso, este construtor obtém um tabuleiro aleatório com um número específico de valores 
+     * iniciais, definido pelo parâmetro {@code num}, do {@link PuzzleCache} compartilhado. O jogo é o 
+     * mesmo que {@code Generator.generateRandomBoard} produziria, mas normalmente já está pronto no 
+     * estoque do cache, de forma que o jogo começa sem esperar pela geração.
      * 
      * O parâmetro {@code num} indica a quantidade de células do tabuleiro que devem ser preenchidas 
-     * com valores iniciais, e a função {@code generateRandomBoard} preenche o tabuleiro com esses valores 
-     * enquanto garante que o tabuleiro resultante seja válido.
+     * com valores iniciais, e o tabuleiro resultante é válido e tem solução única.
      *
      * @param num O número de células que devem ser preenchidas com valores iniciais no tabuleiro. 
      *            Deve ser um valor entre 0 e 81, representando o total de células do tabuleiro 9x9.
      */
     public Game(int num) {
-        board = new Board();
-        initialValues = new boolean[9][9];
-        Generator.generateRandomBoard(board, num);
+        this(3, num, Difficulty.forClues(num));
+    }
+
+    /**
+     * Construtor da classe Game com um jogo gerado de qualquer tamanho, obtido do {@link PuzzleCache} compartilhado.
+     * 
+     * Ao jogar novamente, o próximo jogo tem o mesmo tamanho, a mesma quantidade de valores iniciais e 
+     * o mesmo nível, e também vem do cache.
+     *
+     * @param boxSize O lado das caixas do tabuleiro (3 para 9x9).
+     * @param clues A quantidade de valores iniciais.
+     * @param difficulty O nível de dificuldade.
+     * 
+     * @throws IllegalArgumentException Se {@code boxSize} ou {@code clues} estiverem fora do intervalo aceito.
+     */
+    public Game(int boxSize, int clues, Difficulty difficulty) {
+        this(PuzzleCache.shared().take(boxSize, clues, difficulty));
+        generatedClues = clues;
+        generatedDifficulty = difficulty;
+    }
+
+    /**
+     * Construtor da classe Game a partir de um tabuleiro existente.
+     * 
+     * Este construtor permite iniciar um jogo com um tabuleiro obtido de outra fonte, como 
+     * {@link BoardCodec#fromLine(CharSequence)} ou um registro binário. As células marcadas no tabuleiro 
+     * como geradas automaticamente são registradas em {@code initialValues} como valores iniciais. 
+     * O tabuleiro pode ter qualquer tamanho aceito por {@link Board#Board(int)}, como os gerados por 
+     * {@link Generator#generate(int, Difficulty)}; as jogadas e dicas seguem o tamanho do tabuleiro.
+     *
+     * @param board O tabuleiro com o qual o jogo será iniciado.
+     */
+    public Game(Board board) {
+        setBoard(board);
+    }
+
+    private void setBoard(Board board) {
+        this.board = board;
+        initialValues = new boolean[board.getSize()][board.getSize()];
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                initialValues[row][col] = board.isAutoGeneratedValue(row, col);
+            }
+        }
+        hints = new HintService(board);
     }
     
     /**
@@ -61,18 +116,37 @@ public class Game {
      * 
      * O formato da entrada deve ser uma sequência de entradas como "(linha,coluna,valor)", 
      * onde:
-     * - linha é o número da linha (de 1 a 9),
-     * - coluna é o número da coluna (de 1 a 9),
-     * - valor é o número que deve ser inserido na célula (de 1 a 9).
+     * - linha é o número da linha (de 1 a N, onde N é o lado do tabuleiro; de 1 a 9 no 9x9),
+     * - coluna é o número da coluna (de 1 a N),
+     * - valor é o número que deve ser inserido na célula (de 1 a N).
      * 
      * O método ajusta a indexação para começar em 0 (em vez de 1) para acessar o tabuleiro e atualizar 
      * a matriz {@code initialValues}, que armazena a informação sobre quais células possuem valores 
      * iniciais (não modificáveis).
      * 
+     * Também é aceita uma linha de 81 caracteres (ver {@link BoardCodec#fromLine(CharSequence)}), 
+     * que define todas as células de uma vez.
+     * 
      * @param input A string contendo as células a serem preenchidas no tabuleiro, 
      *              no formato "(linha,coluna,valor)", com as entradas separadas por parênteses.
      */
     public void setInitialValues(String input) {
+        if (board.getSize() == 9 && BoardCodec.isLine(input)) {
+            Board line = BoardCodec.fromLine(input);
+            for (int row = 0; row < 9; row++) {
+                for (int col = 0; col < 9; col++) {
+                    int value = line.getValue(row, col);
+                    if (value != 0) {
+                        board.setValue(row, col, value);
+                        initialValues[row][col] = true;
+                    }
+                }
+            }
+            hints = new HintService(board);
+            journal.clear();
+            return;
+        }
+        journal.clear();
         String[] entries = input.split("\\)\\(");
         for (String entry : entries) {
             entry = entry.replace("(", "").replace(")", "");
@@ -82,33 +156,71 @@ public class Game {
             int value = Integer.parseInt(parts[2]);
             board.setValue(row, col, value);
             initialValues[row][col] = true;
+            hints.cellChanged(row, col);
         }
     }
 
+    /**
+     * Conta as soluções do tabuleiro atual, usando todos os processadores.
+     * 
+     * Permite saber se um jogo definido com {@link #setInitialValues(String)} não tem solução, tem 
+     * solução única ou tem várias, o que não é garantido como nos jogos gerados. A contagem é feita 
+     * por {@link SolutionCounter} e para ao atingir o limite.
+     * 
+     * @param limit O número máximo de soluções a procurar; 2 basta para saber se a solução é única.
+     * @return O número de soluções encontradas, no máximo {@code limit}.
+     */
+    public long countSolutions(long limit) {
+        return new SolutionCounter().countSolutions(board, limit);
+    }
+
     /**
      * Finaliza o jogo e oferece ao jogador a opção de jogar novamente.
      * 
      * Esta função é chamada quando o jogador completa o Sudoku corretamente. Ela
      * exibe uma mensagem de congratulação e pergunta se o jogador deseja jogar
      * novamente. Se o jogador optar por jogar novamente (digitando "s"), o jogo
-     * será reiniciado com um novo tabuleiro e a função `start()` será chamada para
-     * recomeçar a partida. Caso o jogador não deseje jogar novamente (digitando "n"),
-     * uma mensagem de agradecimento será exibida, e o jogo termina.
+     * é reiniciado com um novo tabuleiro e o laço de {@code start} continua com ele, 
+     * sem chamadas recursivas. Se o jogo foi gerado, o novo tabuleiro é um jogo do mesmo tipo retirado 
+     * do {@link PuzzleCache}; caso contrário, é um tabuleiro vazio do mesmo tamanho. Caso o jogador 
+     * não deseje jogar novamente (digitando "n"), uma mensagem de agradecimento será exibida, e o jogo termina. 
+     * Se o jogo estava salvo em um {@link GameStore}, ele é removido dos jogos salvos, e o novo jogo, se 
+     * houver, é salvo no mesmo {@code GameStore}.
      * 
-     * @see start() A função `start()` é chamada para reiniciar o jogo com um novo
-     *              tabuleiro, se o jogador optar por jogar novamente.
+     * @param scanner A entrada da qual a resposta do jogador é lida.
+     * @return {@code true} se o jogador quiser jogar novamente, {@code false} caso contrário.
      */
-    private void end() {
-        Scanner scanner = new Scanner(System.in);
-        System.out.println("Parabéns! Você completou o Sudoku corretamente.");
-        System.out.println("Deseja jogar novamente? (s/n)");
+    private boolean end(Scanner scanner) {
+        GameStore saved = store;
+        if (store != null) {
+            try {
+                store.remove(savedId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            store = null;
+        }
+        out.println("Parabéns! Você completou o Sudoku corretamente.");
+        out.println("Deseja jogar novamente? (s/n)");
         String response = scanner.nextLine();
         if (response.equalsIgnoreCase("s")) {
-            board = new Board();
-            start();
-        } else {
-            System.out.println("Obrigado por jogar!");
+            if (generatedDifficulty != null) {
+                setBoard(PuzzleCache.shared().take(board.getBoxSize(), generatedClues, generatedDifficulty));
+            } else {
+                setBoard(new Board(board.getBoxSize()));
+            }
+            journal.clear();
+            if (saved != null && board.getSize() == 9) {
+                try {
+                    out.println("Novo jogo salvo com o número " + save(saved) + ".");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return true;
         }
+        out.println("Obrigado por jogar!");
+        return false;
     }
     
     /**
@@ -120,63 +232,138 @@ public class Game {
      * 3. Verificar se o Sudoku está correto.
      * 4. Solicitar uma dica para uma célula específica.
      * 5. Sair do jogo.
+     * 6. Desfazer a última jogada.
+     * 7. Refazer a última jogada desfeita.
      * 
      * Após cada ação, o estado do tabuleiro é exibido novamente. O jogo continua em loop
      * até que o jogador escolha sair ou complete o tabuleiro corretamente. Se o tabuleiro
      * estiver cheio e válido, a função `end()` é chamada para encerrar o jogo e perguntar
-     * se o jogador deseja jogar novamente.
+     * se o jogador deseja jogar novamente. Ambas as verificações são consultas em tempo constante
+     * aos contadores que o tabuleiro atualiza a cada jogada, sem percorrer as células.
      * 
      * @see addMove(String) A função chamada para adicionar uma jogada ao tabuleiro.
      * @see removeMove(String) A função chamada para remover uma jogada do tabuleiro.
-     * @see Validator.validate(Board) A função chamada para verificar se o tabuleiro está correto.
+     * @see Validator.validate(Board, ValidationResult) A função chamada para verificar se o tabuleiro está correto.
+     * @see Validator.printReport(ValidationResult, PrintStream) A função que exibe o resultado da verificação.
      * @see giveHint(String) A função chamada para fornecer uma dica ao jogador para uma célula.
-     * @see end() A função chamada quando o jogo é concluído, oferecendo a opção de jogar novamente.
+     * @see undo() A função chamada para desfazer a última jogada.
+     * @see redo() A função chamada para refazer a última jogada desfeita.
+     * @see end(Scanner) A função chamada quando o jogo é concluído, oferecendo a opção de jogar novamente.
      */
     public void start() {
-        Scanner scanner = new Scanner(System.in);
+        start(new Scanner(System.in), System.out);
+    }
+
+    /**
+     * Inicia o jogo de Sudoku lendo as opções de uma entrada e escrevendo em uma saída informadas.
+     * 
+     * Funciona como {@link #start()}, mas permite que o jogo seja conduzido por outra fonte que não o 
+     * console, como uma conexão de rede em {@link GameServer}. Toda a saída do jogo, inclusive mensagens 
+     * de jogadas inválidas e dicas, é escrita em {@code out}.
+     * 
+     * @param scanner A entrada da qual as opções e jogadas são lidas.
+     * @param out A saída na qual o tabuleiro e as mensagens são escritos.
+     */
+    public void start(Scanner scanner, PrintStream out) {
+        this.out = out;
         while (true) {
-            board.printBoard();
-            System.out.println("---Escolha uma opção:---");
-            System.out.println("\n1. Adicionar jogada");
-            System.out.println("2. Remover jogada");
-            System.out.println("3. Verificar");
-            System.out.println("4. Dica");
-            System.out.println("5. Sair");
+            board.printBoard(out);
+            out.println("---Escolha uma opção:---");
+            out.println("\n1. Adicionar jogada");
+            out.println("2. Remover jogada");
+            out.println("3. Verificar");
+            out.println("4. Dica");
+            out.println("5. Sair");
+            out.println("6. Desfazer jogada");
+            out.println("7. Refazer jogada");
             
             int choice = scanner.nextInt();
             scanner.nextLine();
             
-            /**
-             * Embora este trecho de código possa ser substituído por uma estrutura switch-case, 
-             * optei por mantê-lo como um conjunto de if-else após algumas implementações e testes.
-             * Durante os testes, percebi que, ao tentar refatorar para switch-case, a aplicação
-             * apresentava comportamentos inesperados e não estava funcionando corretamente.
-             * Após investigar o comportamento, decidi deixar dessa forma para garantir a estabilidade 
-             * e o funcionamento correto da aplicação. Portanto, o uso de if-else foi mantido por questões 
-             * de compatibilidade com o restante do código e para evitar problemas de execução.
-             */
+            String input = null;
             if (choice == 1) {
-                System.out.println("\nDigite a jogada no formato (linha, coluna, valor):");
-                String input = scanner.nextLine();
-                addMove(input);
+                out.println("\nDigite a jogada no formato (linha, coluna, valor):");
+                input = scanner.nextLine();
             } else if (choice == 2) {
-                System.out.println("\nDigite a posição para remover no formato (linha, coluna):");
-                String input = scanner.nextLine();
-                removeMove(input);
-            } else if (choice == 3) {
-                Validator.validate(board);
+                out.println("\nDigite a posição para remover no formato (linha, coluna):");
+                input = scanner.nextLine();
             } else if (choice == 4) {
-                System.out.println("\nDigite a posição para a dica no formato (linha, coluna):");
-                String input = scanner.nextLine();
-                giveHint(input);
-            } else if (choice == 5) {
-                System.out.println("\nObrigado por jogar!");
+                out.println("\nDigite a posição para a dica no formato (linha, coluna), ou deixe em branco para sugerir a próxima jogada:");
+                input = scanner.nextLine();
+            }
+            if (!perform(choice, input)) {
+                break;
+            }
+            if (isSolved() && !end(scanner)) {
                 break;
             }
-            if (board.isFull() && Validator.validate(board)) {
-                end();
+        }
+    }
+
+    /**
+     * Executa uma opção do menu do jogo com a entrada já informada, sem ler do {@code Scanner}.
+     * 
+     * É o mesmo tratamento que {@link #start(Scanner, PrintStream)} aplica a cada opção escolhida, com 
+     * as mensagens escritas na saída do jogo ({@link #setOutput(PrintStream)}), mas sem exibir o tabuleiro 
+     * nem perguntar se o jogador quer jogar novamente. Permite conduzir o jogo por outro meio que não 
+     * o texto digitado, como um gerador de carga que simula muitos jogadores.
+     * 
+     * @param choice A opção do menu: 1 adicionar, 2 remover, 3 verificar, 4 dica, 5 sair, 6 desfazer e 
+     *               7 refazer. Outros valores são ignorados, como no menu.
+     * @param input A jogada das opções 1 e 2 e a posição da opção 4, nos formatos pedidos pelo menu; 
+     *              ignorada nas demais opções.
+     * @return {@code false} se a opção encerra o jogo (5), {@code true} caso contrário.
+     */
+    public boolean perform(int choice, String input) {
+        /**
+         * Embora este trecho de código possa ser substituído por uma estrutura switch-case, 
+         * optei por mantê-lo como um conjunto de if-else após algumas implementações e testes.
+         * Durante os testes, percebi que, ao tentar refatorar para switch-case, a aplicação
+         * apresentava comportamentos inesperados e não estava funcionando corretamente.
+         * Após investigar o comportamento, decidi deixar dessa forma para garantir a estabilidade 
+         * e o funcionamento correto da aplicação. Portanto, o uso de if-else foi mantido por questões 
+         * de compatibilidade com o restante do código e para evitar problemas de execução.
+         */
+        if (choice == 1) {
+            addMove(input);
+        } else if (choice == 2) {
+            removeMove(input);
+        } else if (choice == 3) {
+            Validator.validate(board, validation);
+            Validator.printReport(validation, out);
+        } else if (choice == 4) {
+            giveHint(input);
+        } else if (choice == 5) {
+            out.println("\nObrigado por jogar!");
+            return false;
+        } else if (choice == 6) {
+            if (!undo()) {
+                out.println("\nNão há jogadas para desfazer.");
+            }
+        } else if (choice == 7) {
+            if (!redo()) {
+                out.println("\nNão há jogadas para refazer.");
             }
         }
+        return true;
+    }
+
+    /**
+     * Verifica se o tabuleiro está completo e sem valores repetidos, em tempo constante.
+     * 
+     * @return {@code true} se o jogo foi concluído corretamente.
+     */
+    public boolean isSolved() {
+        return board.isFull() && Validator.validate(board);
+    }
+
+    /**
+     * Define a saída na qual as mensagens do jogo são escritas, por padrão {@code System.out}.
+     * 
+     * @param out A nova saída.
+     */
+    public void setOutput(PrintStream out) {
+        this.out = out;
     }
     
     /**
@@ -190,9 +377,9 @@ public class Game {
      * que a jogada não foi realizada. Caso contrário, o valor fornecido será atribuído à célula correspondente no tabuleiro.
      * 
      * O formato de entrada deve ser uma sequência de entradas como "(linha,coluna,valor)", onde:
-     * - linha é o número da linha (de 1 a 9),
-     * - coluna é o número da coluna (de 1 a 9),
-     * - valor é o número a ser inserido na célula (de 1 a 9).
+     * - linha é o número da linha (de 1 a N, onde N é o lado do tabuleiro),
+     * - coluna é o número da coluna (de 1 a N),
+     * - valor é o número a ser inserido na célula (de 1 a N).
      * 
      * @param input A string contendo as jogadas a serem inseridas no tabuleiro, 
      *              no formato "(linha,coluna,valor)", com as entradas separadas por parênteses.
@@ -205,14 +392,16 @@ public class Game {
             int row = Integer.parseInt(parts[0]) - 1;
             int col = Integer.parseInt(parts[1]) - 1;
             int value = Integer.parseInt(parts[2]);
-            if (value < 1 || value > 9) {
-                System.out.println("Valor inválido. Por favor, insira um valor entre 1 e 9.");
+            if (value < 1 || value > board.getSize()) {
+                out.println("Valor inválido. Por favor, insira um valor entre 1 e " + board.getSize() + ".");
                 return;
             }
-            if (board.isAutoGeneratedValue(row, col)) {
-                System.out.println("\nA entrada (" + (row + 1) + "," + (col + 1) + "," + value + ") não foi inserida, pois já possui um valor atribuído.");
+            if (initialValues[row][col]) {
+                out.println("\nA entrada (" + (row + 1) + "," + (col + 1) + "," + value + ") não foi inserida, pois já possui um valor atribuído.");
             } else {
+                journal.record(board, row, col, board.getValue(row, col), value);
                 board.setValue(row, col, value);
+                cellChanged(row * board.getSize() + col);
             }
         }
     }
@@ -226,8 +415,8 @@ public class Game {
      * jogada não pode ser removida. Caso contrário, o valor da célula é removido.
      * 
      * O formato de entrada deve ser "(linha,coluna)", onde:
-     * - linha é o número da linha (de 1 a 9),
-     * - coluna é o número da coluna (de 1 a 9).
+     * - linha é o número da linha (de 1 a N, onde N é o lado do tabuleiro),
+     * - coluna é o número da coluna (de 1 a N).
      * 
      * @param input A string contendo a posição da célula a ser removida, no formato "(linha,coluna)".
      */
@@ -236,10 +425,126 @@ public class Game {
         int row = Integer.parseInt(parts[0]) - 1;
         int col = Integer.parseInt(parts[1]) - 1;
     
-        if (board.isAutoGeneratedValue(row, col)) {
-            System.out.println("\nA jogada na posição (" + (row + 1) + "," + (col + 1) + ") não pode ser removida.");
+        if (initialValues[row][col]) {
+            out.println("\nA jogada na posição (" + (row + 1) + "," + (col + 1) + ") não pode ser removida.");
         } else {
+            journal.record(board, row, col, board.getValue(row, col), 0);
             board.setValue(row, col, 0);
+            cellChanged(row * board.getSize() + col);
+        }
+    }
+
+    /**
+     * Desfaz a última jogada feita com {@code addMove} ou {@code removeMove}.
+     * 
+     * As jogadas ficam registradas em um {@link MoveJournal}, que guarda apenas a célula e os valores 
+     * anterior e novo de cada uma, em vez de cópias do tabuleiro. Desfazer e refazer custam tempo 
+     * constante, independentemente de quantas jogadas já foram feitas.
+     * 
+     * @return {@code true} se havia uma jogada a desfazer.
+     */
+    public boolean undo() {
+        return journal.undo(board, this::cellChanged);
+    }
+
+    /**
+     * Refaz a última jogada desfeita com {@link #undo()}.
+     * 
+     * @return {@code true} se havia uma jogada a refazer.
+     */
+    public boolean redo() {
+        return journal.redo(board, this::cellChanged);
+    }
+
+    /**
+     * Retorna um instantâneo do estado atual do jogo, em tempo constante.
+     * 
+     * O instantâneo não copia o tabuleiro: ele identifica uma posição no histórico de jogadas, que é 
+     * compartilhado por todos os instantâneos. Ele continua válido até o jogo ser reiniciado.
+     * 
+     * @return O identificador do instantâneo, usado em {@link #restore(int)}.
+     */
+    public int snapshot() {
+        return journal.snapshot();
+    }
+
+    /**
+     * Leva o tabuleiro ao estado de um instantâneo, reaplicando apenas as jogadas que os separam.
+     * 
+     * @param snapshot Um identificador obtido de {@link #snapshot()}.
+     * 
+     * @throws IllegalArgumentException Se o instantâneo não pertencer a este jogo.
+     */
+    public void restore(int snapshot) {
+        journal.restore(board, snapshot, this::cellChanged);
+    }
+
+    /**
+     * Salva o jogo em um {@link GameStore}, que passa a registrar cada jogada seguinte.
+     * 
+     * O tabuleiro atual, com os valores iniciais, é gravado como um novo jogo salvo. A partir daí, toda 
+     * jogada feita, removida, desfeita ou refeita é acrescentada ao log do {@code GameStore} antes de o 
+     * método que a fez retornar, de modo que o jogo pode ser retomado com {@link #resume(GameStore, long)} 
+     * mesmo depois de uma queda do processo. Deve ser chamado depois que os valores iniciais forem definidos: 
+     * as células de {@code initialValues}, inclusive as definidas com {@link #setInitialValues(String)}, 
+     * são gravadas como valores iniciais.
+     * 
+     * @param store Os jogos salvos nos quais o jogo será gravado.
+     * @return O número do jogo salvo.
+     * 
+     * @throws IOException Se ocorrer um erro de gravação.
+     */
+    public long save(GameStore store) throws IOException {
+        savedId = store.create(board, initialValues);
+        this.store = store;
+        return savedId;
+    }
+
+    /**
+     * Retoma um jogo salvo com {@link #save(GameStore)}, no estado da última jogada registrada.
+     * 
+     * Os valores iniciais são os gravados pelo {@code GameStore}, e não as marcas do tabuleiro lido. O jogo 
+     * retomado continua registrando as jogadas no mesmo {@code GameStore}. O histórico de desfazer e 
+     * refazer não é salvo e começa vazio.
+     * 
+     * @param store Os jogos salvos.
+     * @param id O número do jogo salvo.
+     * @return O jogo retomado.
+     * 
+     * @throws IllegalArgumentException Se o jogo salvo não existir.
+     */
+    public static Game resume(GameStore store, long id) {
+        Game game = new Game(store.load(id));
+        game.initialValues = store.getInitialValues(id);
+        game.store = store;
+        game.savedId = id;
+        return game;
+    }
+
+    /**
+     * Retorna o tabuleiro do jogo em andamento.
+     */
+    Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Verifica se uma célula possui um valor inicial, que o jogador não pode alterar.
+     */
+    boolean isInitialValue(int row, int col) {
+        return initialValues[row][col];
+    }
+
+    private void cellChanged(int cell) {
+        int row = board.getTopology().rowOf[cell];
+        int col = board.getTopology().colOf[cell];
+        hints.cellChanged(row, col);
+        if (store != null) {
+            try {
+                store.logMove(savedId, row, col, board.getValue(row, col));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
     
@@ -247,23 +552,32 @@ public class Game {
      * Fornece uma dica de valores possíveis para uma célula do tabuleiro.
      * 
      * Este método processa a entrada do jogador, que deve estar no formato "(linha,coluna)", 
-     * e exibe os valores possíveis que podem ser inseridos na célula especificada. O método chama o 
-     * método {@code Validator.getPossibleValues} para obter os valores válidos para aquela posição no tabuleiro.
+     * e exibe os valores possíveis que podem ser inseridos na célula especificada. Os valores vêm da 
+     * grade de candidatos mantida por {@link HintService}, atualizada a cada jogada, sem recalcular a 
+     * linha, a coluna e o quadrado da célula.
+     * 
+     * Se a entrada estiver em branco, o método sugere a melhor próxima jogada e o motivo, usando 
+     * {@link HintService#nextMove()}.
      * 
      * O formato de entrada deve ser "(linha,coluna)", onde:
-     * - linha é o número da linha (de 1 a 9),
-     * - coluna é o número da coluna (de 1 a 9).
+     * - linha é o número da linha (de 1 a N, onde N é o lado do tabuleiro),
+     * - coluna é o número da coluna (de 1 a N).
      * 
      * A dica apresentada é uma lista dos números que podem ser inseridos na célula sem violar as regras 
-     * do Sudoku (ou seja, sem repetir valores na linha, coluna ou quadrado 3x3 correspondente).
+     * do Sudoku (ou seja, sem repetir valores na linha, coluna ou quadrado correspondente).
      * 
      * @param input A string contendo a posição da célula para a qual a dica será fornecida, 
-     *              no formato "(linha,coluna)".
+     *              no formato "(linha,coluna)", ou uma string em branco.
      */
     private void giveHint(String input) {
+        if (input.isBlank()) {
+            Hint hint = hints.nextMove();
+            out.println(hint == null ? "\nO tabuleiro já está completo." : "\n" + hint);
+            return;
+        }
         String[] parts = input.replace("(", "").replace(")", "").split(",");
-        int row = Integer.parseInt(parts[0]) - 1;
-        int col = Integer.parseInt(parts[1]) - 1;
-        System.out.println("\nValores possíveis para (" + (row + 1) + "," + (col + 1) + "): " + Validator.getPossibleValues(board, row, col));
+        int row = Integer.parseInt(parts[0].trim()) - 1;
+        int col = Integer.parseInt(parts[1].trim()) - 1;
+        out.println("\nValores possíveis para (" + (row + 1) + "," + (col + 1) + "): " + HintService.describe(hints.getCandidates(row, col)));
     }
 }
\ No newline at end of file
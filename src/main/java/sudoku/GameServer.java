@@ -0,0 +1,183 @@
+package sudoku;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class GameServer implements AutoCloseable {
+    /**
+     * Porta usada quando nenhuma é informada.
+     */
+    public static final int DEFAULT_PORT = 5959;
+
+    /**
+     * Diretório dos jogos salvos usado quando nenhum é informado.
+     */
+    public static final String DEFAULT_STORE_DIRECTORY = "jogos-salvos";
+
+    private static final int BACKLOG = 4096;
+
+    private final ServerSocket serverSocket;
+    private final GameStore store;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    /**
+     * Construtor da classe GameServer.
+     *
+     * Abre a porta informada em todas as interfaces. As conexões só são aceitas a partir de {@link #serve()}.
+     *
+     * @param port A porta TCP, ou 0 para uma porta livre escolhida pelo sistema.
+     *
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public GameServer(int port) throws IOException {
+        this(new InetSocketAddress(port));
+    }
+
+    /**
+     * Construtor da classe GameServer, com o endereço em que as conexões são aceitas.
+     *
+     * @param address O endereço e a porta locais.
+     *
+     * @throws IOException Se o endereço não puder ser usado.
+     */
+    public GameServer(InetSocketAddress address) throws IOException {
+        this(address, null);
+    }
+
+    /**
+     * Construtor da classe GameServer, com o endereço e os jogos salvos das sessões.
+     *
+     * Com um {@link GameStore}, cada jogo 9x9 iniciado em uma sessão é salvo e pode ser retomado pelo
+     * número exibido ao jogador, em outra conexão ou depois de uma reinicialização do servidor. O
+     * {@code GameStore} não é fechado pelo servidor.
+     *
+     * @param address O endereço e a porta locais.
+     * @param store Os jogos salvos, ou {@code null} para não salvar os jogos.
+     *
+     * @throws IOException Se o endereço não puder ser usado.
+     */
+    public GameServer(InetSocketAddress address, GameStore store) throws IOException {
+        this.store = store;
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(address, BACKLOG);
+    }
+
+    /**
+     * Executa o servidor a partir dos argumentos de linha de comando.
+     *
+     * Uso: {@code server [porta] [diretório]}. Os jogos das sessões são salvos no diretório, por padrão
+     * {@link #DEFAULT_STORE_DIRECTORY}, e os jogos em andamento quando o servidor foi encerrado são
+     * recuperados na próxima execução. O servidor atende até o processo ser encerrado.
+     *
+     * @param args Os argumentos de linha de comando, começando por {@code server}.
+     * @return O código de saída do processo: 1 em caso de erro de uso ou se a porta ou o diretório não puderem ser abertos.
+     */
+    public static int run(String[] args) {
+        int port = DEFAULT_PORT;
+        Path directory = Path.of(args.length > 2 ? args[2] : DEFAULT_STORE_DIRECTORY);
+        try {
+            if (args.length > 1) {
+                port = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Uso: server [porta] [diretório]");
+            return 1;
+        }
+        try (GameStore store = GameStore.open(directory);
+             GameServer server = new GameServer(new InetSocketAddress(port), store)) {
+            PuzzleCache.shared().prefetchDefaults();
+            System.err.println("Servidor de Sudoku aguardando conexões na porta " + server.getPort() + ", com "
+                    + store.getGameIds().length + " jogos salvos em " + directory);
+            server.serve();
+            return 0;
+        } catch (IOException e) {
+            System.err.println("ERRO: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Aceita conexões até que o servidor seja fechado, iniciando uma sessão de jogo para cada uma.
+     *
+     * O protocolo é o mesmo do modo interativo, linha a linha em UTF-8: o cliente recebe o menu e o
+     * tabuleiro e envia as opções e jogadas, como faria no console. Cada sessão roda em sua própria
+     * thread virtual, com seus próprios {@link Menu}, {@link Game} e {@link Board}, que não são
+     * compartilhados com nenhuma outra sessão. Por isso o servidor não usa travas: o único estado
+     * comum é o contador de sessões ativas, além dos jogos salvos, que o {@link GameStore} sincroniza. Uma sessão bloqueada esperando a próxima linha do
+     * jogador não ocupa uma thread da plataforma, o que permite manter centenas de milhares de
+     * jogadores conectados ao mesmo tempo, limitados pela memória de cada tabuleiro e pelo número
+     * de descritores de arquivo do sistema.
+     *
+     * A opção de carregar um jogo de um arquivo não é oferecida nas sessões remotas.
+     *
+     * @throws IOException Se ocorrer um erro ao aceitar conexões que não seja o fechamento do servidor.
+     */
+    public void serve() throws IOException {
+        while (true) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            Thread.ofVirtual().name("session-" + socket.getRemoteSocketAddress()).start(() -> session(socket));
+        }
+    }
+
+    /**
+     * Retorna a porta local em que o servidor aceita conexões.
+     *
+     * @return O número da porta.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Retorna a quantidade de sessões em andamento.
+     *
+     * @return O número de jogadores conectados.
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Para de aceitar conexões. As sessões em andamento continuam até que seus jogadores desconectem.
+     *
+     * @throws IOException Se ocorrer um erro ao fechar a porta.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void session(Socket socket) {
+        activeSessions.incrementAndGet();
+        try (socket;
+             Scanner scanner = new Scanner(socket.getInputStream(), StandardCharsets.UTF_8);
+             PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            new Menu(false, store).displayWelcomeScreen(scanner, out);
+        } catch (IOException | NoSuchElementException | IllegalStateException e) {
+            // O jogador desconectou ou enviou algo fora do protocolo; apenas a sessão dele é encerrada.
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,518 @@
+package sudoku;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class GameStore implements AutoCloseable {
+    static final int CHECKPOINT_MAGIC = 0x53444B43;
+    static final int CHECKPOINT_VERSION = 1;
+    static final int CHECKPOINT_HEADER_SIZE = 28;
+    static final int CHECKPOINT_ENTRY_SIZE = 8 + BoardCodec.RECORD_SIZE;
+    static final int LOG_RECORD_SIZE = 16;
+    static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+
+    private static final int OP_CREATE = 1;
+    private static final int OP_GIVEN = 2;
+    private static final int OP_MOVE = 3;
+    private static final int OP_END = 4;
+    private static final int BUFFER_RECORDS = 1 << 16;
+    private static final String CHECKPOINT_FILE = "checkpoint.dat";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingAvailable = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+    private final Map<Long, byte[]> sessions = new HashMap<>();
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_RECORDS * LOG_RECORD_SIZE);
+    private ByteBuffer writing = ByteBuffer.allocate(BUFFER_RECORDS * LOG_RECORD_SIZE);
+    private long nextLsn;
+    private long durableLsn;
+    private long nextSessionId = 1;
+    private IOException failure;
+    private boolean closed;
+    private FileChannel segment;
+    private long segmentWritten;
+
+    /**
+     * Abre, ou cria, um diretório de jogos salvos, recuperando os jogos em andamento.
+     *
+     * Cada jogo é identificado por um número e guardado como um tabuleiro no formato binário de
+     * {@link BoardCodec}, que inclui os valores iniciais. O diretório contém um ponto de controle
+     * ({@code checkpoint.dat}), com todos os jogos até uma posição do log, e o log de jogadas
+     * ({@code wal-N.log}), com registros de 16 bytes para cada jogada feita depois dela. Na abertura,
+     * os jogos são reconstruídos a partir do ponto de controle e das jogadas do log; um registro
+     * incompleto no fim do log, deixado por uma queda durante a gravação, encerra a recuperação. Em
+     * seguida um novo ponto de controle é gravado e o log antigo é apagado.
+     *
+     * @param directory O diretório dos jogos salvos. É criado se não existir.
+     * @return Os jogos salvos, prontos para novas jogadas.
+     *
+     * @throws IOException Se o diretório não puder ser lido ou o ponto de controle estiver corrompido.
+     */
+    public static GameStore open(Path directory) throws IOException {
+        return new GameStore(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    GameStore(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+        flusher = Thread.ofPlatform().name("game-store-flusher").daemon().start(this::flushLoop);
+    }
+
+    /**
+     * Salva um novo jogo e retorna o seu número.
+     *
+     * As células marcadas no tabuleiro como geradas automaticamente são salvas como valores iniciais e as
+     * demais como jogadas. O método só retorna depois que o jogo estiver gravado em disco.
+     *
+     * @param board O tabuleiro do jogo.
+     * @return O número do jogo, usado nas demais operações.
+     *
+     * @throws IOException Se ocorrer um erro de gravação.
+     * @throws IllegalArgumentException Se o tabuleiro não for 9x9.
+     *
+     * @see #create(Board, boolean[][])
+     */
+    public long create(Board board) throws IOException {
+        boolean[][] initialValues = new boolean[board.getSize()][board.getSize()];
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                initialValues[row][col] = board.isAutoGeneratedValue(row, col);
+            }
+        }
+        return create(board, initialValues);
+    }
+
+    /**
+     * Salva um novo jogo com os valores iniciais informados e retorna o seu número.
+     *
+     * As células marcadas em {@code initialValues} são salvas como valores iniciais, independentemente de
+     * estarem marcadas no tabuleiro como geradas automaticamente, e as demais células preenchidas como
+     * jogadas. É a forma usada por {@link Game#save(GameStore)}, cujos valores iniciais podem ter sido
+     * definidos pelo jogador. O método só retorna depois que o jogo estiver gravado em disco.
+     *
+     * @param board O tabuleiro do jogo.
+     * @param initialValues As células que possuem valores iniciais, indexadas por linha e coluna.
+     * @return O número do jogo, usado nas demais operações.
+     *
+     * @throws IOException Se ocorrer um erro de gravação.
+     * @throws IllegalArgumentException Se o tabuleiro não for 9x9.
+     */
+    public long create(Board board, boolean[][] initialValues) throws IOException {
+        if (board.getSize() != 9) {
+            throw new IllegalArgumentException("Apenas tabuleiros 9x9 podem ser salvos: " + board.getSize() + "x" + board.getSize());
+        }
+        long id;
+        long lsn;
+        lock.lock();
+        try {
+            id = nextSessionId++;
+            lsn = append(id, OP_CREATE, 0, 0);
+            for (int cell = 0; cell < 81; cell++) {
+                int value = board.getValue(cell / 9, cell % 9);
+                if (value != 0) {
+                    lsn = append(id, initialValues[cell / 9][cell % 9] ? OP_GIVEN : OP_MOVE, cell, value);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(lsn);
+        return id;
+    }
+
+    /**
+     * Registra uma jogada de um jogo salvo.
+     *
+     * A jogada é acrescentada ao log e o método aguarda até que ela esteja em disco. As gravações são
+     * feitas em grupo: uma única thread grava, com uma só chamada de {@code force}, todas as jogadas que
+     * chegaram enquanto a gravação anterior estava em andamento. Assim, com muitos jogos ao mesmo tempo,
+     * o custo de cada sincronização com o disco é dividido entre várias jogadas, e nenhuma jogada
+     * confirmada é perdida em uma queda.
+     *
+     * @param id O número do jogo.
+     * @param row A linha da célula (de 0 a 8).
+     * @param col A coluna da célula (de 0 a 8).
+     * @param value O novo valor da célula (de 0 a 9; 0 para apagar).
+     *
+     * @throws IOException Se ocorrer um erro de gravação.
+     * @throws IllegalArgumentException Se o jogo não existir ou a jogada for inválida.
+     */
+    public void logMove(long id, int row, int col, int value) throws IOException {
+        if (row < 0 || row > 8 || col < 0 || col > 8 || value < 0 || value > 9) {
+            throw new IllegalArgumentException("Jogada inválida: (" + row + "," + col + "," + value + ")");
+        }
+        long lsn;
+        lock.lock();
+        try {
+            checkSession(id);
+            lsn = append(id, OP_MOVE, row * 9 + col, value);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(lsn);
+    }
+
+    /**
+     * Remove um jogo salvo, por exemplo quando ele é concluído.
+     *
+     * @param id O número do jogo.
+     *
+     * @throws IOException Se ocorrer um erro de gravação.
+     */
+    public void remove(long id) throws IOException {
+        long lsn;
+        lock.lock();
+        try {
+            checkSession(id);
+            lsn = append(id, OP_END, 0, 0);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(lsn);
+    }
+
+    /**
+     * Lê o estado atual de um jogo salvo.
+     *
+     * @param id O número do jogo.
+     * @return O tabuleiro do jogo, com os valores iniciais marcados como gerados automaticamente.
+     *
+     * @throws IllegalArgumentException Se o jogo não existir.
+     */
+    public Board load(long id) {
+        byte[] record;
+        lock.lock();
+        try {
+            checkSession(id);
+            record = sessions.get(id).clone();
+        } finally {
+            lock.unlock();
+        }
+        return BoardCodec.read(ByteBuffer.wrap(record), 0);
+    }
+
+    /**
+     * Lê quais células de um jogo salvo possuem valores iniciais.
+     *
+     * São as células salvas como valores iniciais por {@link #create(Board, boolean[][])}, guardadas no
+     * ponto de controle junto com os valores do tabuleiro. As jogadas registradas depois nunca as alteram.
+     *
+     * @param id O número do jogo.
+     * @return Uma nova matriz 9x9, indexada por linha e coluna.
+     *
+     * @throws IllegalArgumentException Se o jogo não existir.
+     */
+    public boolean[][] getInitialValues(long id) {
+        boolean[][] initialValues = new boolean[9][9];
+        lock.lock();
+        try {
+            checkSession(id);
+            byte[] record = sessions.get(id);
+            for (int cell = 0; cell < 81; cell++) {
+                initialValues[cell / 9][cell % 9] = BoardCodec.isGiven(record, cell);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return initialValues;
+    }
+
+    /**
+     * Retorna os números dos jogos salvos, em ordem crescente.
+     *
+     * @return Os números dos jogos em andamento.
+     */
+    public long[] getGameIds() {
+        lock.lock();
+        try {
+            return sessions.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fecha os jogos salvos, aguardando a gravação das jogadas pendentes.
+     *
+     * @throws IOException Se ocorrer um erro de gravação.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private long append(long id, int op, int cell, int value) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Os jogos salvos já foram fechados.");
+        }
+        while (pending.remaining() < LOG_RECORD_SIZE && failure == null) {
+            spaceAvailable.awaitUninterruptibly();
+        }
+        if (failure != null) {
+            throw new IOException("Erro ao gravar o log de jogadas.", failure);
+        }
+        long lsn = nextLsn++;
+        int position = pending.position();
+        pending.putLong(id).put((byte) op).put((byte) cell).put((byte) value).put((byte) 0);
+        pending.putInt(checksum(pending, position, lsn));
+        apply(id, op, cell, value);
+        pendingAvailable.signal();
+        return lsn;
+    }
+
+    private void awaitDurable(long lsn) throws IOException {
+        lock.lock();
+        try {
+            while (durableLsn <= lsn) {
+                if (failure != null) {
+                    throw new IOException("Erro ao gravar o log de jogadas.", failure);
+                }
+                committed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long end;
+            ByteBuffer checkpoint = null;
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    pendingAvailable.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                end = nextLsn;
+                spaceAvailable.signalAll();
+                if (segmentWritten + writing.position() >= segmentSize) {
+                    checkpoint = snapshot(end);
+                }
+            } finally {
+                lock.unlock();
+            }
+            try {
+                writing.flip();
+                segmentWritten += writing.remaining();
+                while (writing.hasRemaining()) {
+                    segment.write(writing);
+                }
+                writing.clear();
+                segment.force(false);
+                lock.lock();
+                try {
+                    durableLsn = end;
+                    committed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                if (checkpoint != null) {
+                    segment.close();
+                    openSegment(end);
+                    writeCheckpoint(checkpoint, end);
+                }
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    committed.signalAll();
+                    spaceAvailable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        long lsn = 0;
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpointPath)) {
+            ByteBuffer checkpoint = ByteBuffer.wrap(Files.readAllBytes(checkpointPath));
+            if (checkpoint.remaining() < CHECKPOINT_HEADER_SIZE || checkpoint.getInt() != CHECKPOINT_MAGIC
+                    || checkpoint.getInt() != CHECKPOINT_VERSION) {
+                throw new IOException("O ponto de controle não está no formato esperado: " + checkpointPath);
+            }
+            lsn = checkpoint.getLong();
+            nextSessionId = checkpoint.getLong();
+            int count = checkpoint.getInt();
+            for (int i = 0; i < count; i++) {
+                long id = checkpoint.getLong();
+                byte[] record = new byte[BoardCodec.RECORD_SIZE];
+                checkpoint.get(record);
+                sessions.put(id, record);
+            }
+        }
+
+        List<Path> segments = listSegments();
+        replay:
+        for (Path path : segments) {
+            long start = segmentStart(path);
+            if (start > lsn) {
+                break;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int offset = 0; offset + LOG_RECORD_SIZE <= records.capacity(); offset += LOG_RECORD_SIZE) {
+                    long recordLsn = start + offset / LOG_RECORD_SIZE;
+                    if (records.getInt(offset + 12) != checksum(records, offset, recordLsn)) {
+                        break replay;
+                    }
+                    if (recordLsn < lsn) {
+                        continue;
+                    }
+                    long id = records.getLong(offset);
+                    apply(id, records.get(offset + 8), records.get(offset + 9), records.get(offset + 10));
+                    nextSessionId = Math.max(nextSessionId, id + 1);
+                    lsn = recordLsn + 1;
+                }
+            }
+        }
+        nextLsn = lsn;
+        durableLsn = lsn;
+
+        openSegment(lsn);
+        writeCheckpoint(snapshot(lsn), lsn);
+    }
+
+    private void apply(long id, int op, int cell, int value) {
+        if (op == OP_CREATE) {
+            sessions.put(id, new byte[BoardCodec.RECORD_SIZE]);
+        } else if (op == OP_END) {
+            sessions.remove(id);
+        } else {
+            byte[] record = sessions.get(id);
+            if (record != null) {
+                BoardCodec.setCell(record, cell, value, op == OP_GIVEN);
+            }
+        }
+    }
+
+    private ByteBuffer snapshot(long lsn) {
+        ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_HEADER_SIZE + sessions.size() * CHECKPOINT_ENTRY_SIZE);
+        checkpoint.putInt(CHECKPOINT_MAGIC);
+        checkpoint.putInt(CHECKPOINT_VERSION);
+        checkpoint.putLong(lsn);
+        checkpoint.putLong(nextSessionId);
+        checkpoint.putInt(sessions.size());
+        for (Map.Entry<Long, byte[]> session : sessions.entrySet()) {
+            checkpoint.putLong(session.getKey());
+            checkpoint.put(session.getValue());
+        }
+        checkpoint.flip();
+        return checkpoint;
+    }
+
+    private void writeCheckpoint(ByteBuffer checkpoint, long lsn) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (checkpoint.hasRemaining()) {
+                channel.write(checkpoint);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // A troca de nome só é durável depois do force do diretório; antes disso, apagar os segmentos antigos
+        // poderia deixar, depois de uma queda, o ponto de controle anterior sem o registro que o completa.
+        forceDirectory();
+        for (Path path : listSegments()) {
+            if (segmentStart(path) < lsn) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private void openSegment(long start) throws IOException {
+        segment = FileChannel.open(directory.resolve(SEGMENT_PREFIX + start + SEGMENT_SUFFIX), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        segmentWritten = 0;
+        forceDirectory();
+    }
+
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(segmentStart(a), segmentStart(b)));
+        return segments;
+    }
+
+    private static long segmentStart(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private int checksum(ByteBuffer records, int offset, long lsn) {
+        crc.reset();
+        crc.update(records.slice(offset, 12));
+        return (int) crc.getValue() ^ (int) (lsn * 0x9E3779B97F4A7C15L >>> 32);
+    }
+
+    private void checkSession(long id) {
+        if (!sessions.containsKey(id)) {
+            throw new IllegalArgumentException("Jogo salvo inexistente: " + id);
+        }
+    }
+}
@@ -1,67 +1,305 @@
 package sudoku;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.random.RandomGenerator;
 
 /**
  *
  * @author caiofdev
  */
 public class Generator {
+    // Pool compartilhado em vez de um Solver por thread: com uma thread virtual por sessão em
+    // GameServer, um ThreadLocal manteria um Solver vivo para cada jogador conectado.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ConcurrentLinkedQueue<Solver>[] SOLVERS = new ConcurrentLinkedQueue[Board.MAX_BOX_SIZE + 1];
+
+    static {
+        for (int boxSize = Board.MIN_BOX_SIZE; boxSize <= Board.MAX_BOX_SIZE; boxSize++) {
+            SOLVERS[boxSize] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
     /**
      * Gera valores aleatórios para preencher um tabuleiro de Sudoku.
-     * 
-     * Esta função insere um número especificado de valores aleatórios em posições 
-     * vazias (células com valor 0) de um tabuleiro de Sudoku. Os valores são gerados 
-     * aleatoriamente entre 1 e 9, e cada tentativa garante que uma célula vazia seja preenchida.
-     * 
-     * @param board o tabuleiro de Sudoku a ser preenchido.
+     *
+     * Esta função preenche o tabuleiro com um jogo de solução única contendo {@code num} valores
+     * iniciais, marcados como gerados automaticamente. O jogo é produzido pelo mesmo processo de
+     * {@link #generate(int, Difficulty, RandomGenerator)}, com o nível de dificuldade mais próximo da
+     * quantidade pedida, e por isso termina em tempo limitado mesmo para valores altos de {@code num}.
+     * Quando não é possível chegar a tão poucos valores mantendo a solução única, o tabuleiro fica com
+     * o menor número de valores alcançado. O jogo é sorteado a cada chamada; para um jogo que possa
+     * ser reproduzido a partir de um código, use {@link PuzzleId#generate(long, Difficulty)}.
+     *
+     * @param board o tabuleiro de Sudoku a ser preenchido. Deve estar vazio.
      *              Deve ser uma instância da classe {@code Board}, que permite definir e obter valores das células.
      * @param num o número de valores aleatórios a serem gerados e inseridos no tabuleiro.
-     * 
+     *
      * @throws NullPointerException se o parâmetro {@code board} for {@code null}.
-     * @throws IllegalArgumentException se o número de valores a serem inseridos {@code num} for negativo.
+     * @throws IllegalArgumentException se o número de valores a serem inseridos {@code num} estiver fora do intervalo de 0 a 81
+     *                                  (ou de 0 ao número de células, em tabuleiros de outros tamanhos).
      */
     public static void generateRandomBoard(Board board, int num) {
-        Random rand = new Random();
-        for (int i = 0; i < num; i++) {
-            int row = rand.nextInt(9);
-            int col = rand.nextInt(9);
-            int value = rand.nextInt(9) + 1;
-            if (board.getValue(row, col) == 0 && isValid(board, row, col, value)) {
-                board.setAutoGeneratedValue(row, col, value);
-            } else {
-                i--;
-            }
+        int boxSize = board.getBoxSize();
+        int cells = board.getSize() * board.getSize();
+        copyGivens(generateCells(boxSize, num, Difficulty.forClues(num * 81 / cells), new Random()), board);
+    }
+
+    /**
+     * Gera um novo jogo de Sudoku com solução única, usando a quantidade padrão de valores iniciais do nível.
+     *
+     * @param difficulty O nível de dificuldade desejado.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     */
+    public static Board generate(Difficulty difficulty) {
+        return generate(difficulty.getDefaultClues(), difficulty, new Random());
+    }
+
+    /**
+     * Gera um novo jogo de Sudoku com solução única.
+     *
+     * O processo tem duas etapas. Primeiro, uma grade completa é preenchida por backtracking, testando
+     * os candidatos de cada célula em ordem aleatória. Em seguida, as células são visitadas em ordem
+     * aleatória e esvaziadas uma a uma; uma remoção só é mantida se o {@link Solver} confirmar que o
+     * jogo continua com solução única e se a linha e a coluna da célula continuarem com o mínimo de
+     * valores exigido pelo nível. Como cada célula é visitada no máximo uma vez, a geração faz no máximo
+     * 81 verificações de unicidade e termina em tempo limitado.
+     *
+     * Se a quantidade pedida for menor do que a alcançável (por exemplo, menos de 17), o jogo retornado
+     * terá o menor número de valores iniciais obtido.
+     *
+     * @param clues A quantidade de valores iniciais desejada (de 0 a 81).
+     * @param difficulty O nível de dificuldade, que limita quantas células podem ser esvaziadas por linha e coluna.
+     * @param random O gerador de números aleatórios usado no preenchimento e na remoção.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     *
+     * @throws IllegalArgumentException Se {@code clues} estiver fora do intervalo de 0 a 81.
+     */
+    public static Board generate(int clues, Difficulty difficulty, RandomGenerator random) {
+        return generate(3, clues, difficulty, random);
+    }
+
+    /**
+     * Gera um novo jogo com solução única em um tabuleiro de outro tamanho, usando a quantidade padrão
+     * de valores iniciais do nível para esse tamanho.
+     *
+     * @param boxSize O lado das caixas do tabuleiro (4 para 16x16, 5 para 25x25).
+     * @param difficulty O nível de dificuldade desejado.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     */
+    public static Board generate(int boxSize, Difficulty difficulty) {
+        return generate(boxSize, difficulty.getDefaultClues(boxSize), difficulty, new Random());
+    }
+
+    /**
+     * Gera um novo jogo com solução única em um tabuleiro de outro tamanho.
+     *
+     * O processo é o mesmo de {@link #generate(int, Difficulty, RandomGenerator)}, com o mínimo de valores
+     * por linha e coluna do nível ajustado ao tamanho. Nos tabuleiros 16x16 e 25x25, a grade completa não
+     * é preenchida por backtracking, cujo tempo cresce de forma explosiva nesses tamanhos, e sim a partir
+     * de uma grade válida padrão, embaralhando os dígitos, as linhas dentro de cada faixa de caixas, as
+     * colunas dentro de cada pilha de caixas e as próprias faixas e pilhas, operações que preservam as
+     * regras do jogo.
+     *
+     * @param boxSize O lado das caixas do tabuleiro, de {@link Board#MIN_BOX_SIZE} a {@link Board#MAX_BOX_SIZE}.
+     * @param clues A quantidade de valores iniciais desejada (de 0 ao número de células).
+     * @param difficulty O nível de dificuldade.
+     * @param random O gerador de números aleatórios.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     *
+     * @throws IllegalArgumentException Se {@code boxSize} ou {@code clues} estiverem fora do intervalo aceito.
+     */
+    public static Board generate(int boxSize, int clues, Difficulty difficulty, RandomGenerator random) {
+        return toBoard(boxSize, generateCells(boxSize, clues, difficulty, random));
+    }
+
+    /**
+     * Gera o jogo em formato plano (81 valores, linha a linha, 0 para vazio).
+     */
+    static int[] generateCells(int clues, Difficulty difficulty, RandomGenerator random) {
+        return generateCells(3, clues, difficulty, random);
+    }
+
+    /**
+     * Gera o jogo em formato plano para um tabuleiro com caixas de lado {@code boxSize}.
+     */
+    static int[] generateCells(int boxSize, int clues, Difficulty difficulty, RandomGenerator random) {
+        if (boxSize < Board.MIN_BOX_SIZE || boxSize > Board.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("O lado da caixa deve estar entre " + Board.MIN_BOX_SIZE + " e " + Board.MAX_BOX_SIZE + ": " + boxSize);
         }
+        int total = boxSize * boxSize * boxSize * boxSize;
+        if (clues < 0 || clues > total) {
+            throw new IllegalArgumentException("A quantidade de valores iniciais deve estar entre 0 e " + total + ": " + clues);
+        }
+        OperationEvent measurement = Metrics.start();
+        int[] cells = new int[total];
+        fillGrid(cells, boxSize, random);
+        digHoles(cells, boxSize, clues, difficulty, random);
+        Metrics.stop(Metrics.Operation.GENERATE, measurement);
+        return cells;
+    }
+
+    /**
+     * Preenche uma grade vazia com uma solução completa e aleatória.
+     *
+     * @param cells A grade a ser preenchida, com todas as posições em zero.
+     * @param random O gerador de números aleatórios usado para ordenar os candidatos.
+     */
+    static void fillGrid(int[] cells, RandomGenerator random) {
+        fillGrid(cells, 3, random);
     }
 
     /**
-     * Verifica se um valor é válido em uma célula de um tabuleiro de Sudoku.
-     * Um valor é considerado válido se ele não violar as regras do Sudoku,
-     * ou seja, se não aparecer na mesma linha, na mesma coluna, nem na mesma subgrade 3x3.
-     * 
-     * @param board O tabuleiro de Sudoku representado por um objeto da classe Board.
-     * @param row A linha (índice de 0 a 8) onde se deseja verificar a validade do valor.
-     * @param col A coluna (índice de 0 a 8) onde se deseja verificar a validade do valor.
-     * @param value O valor a ser inserido na célula, que será validado.
-     * @return Retorna um valor booleano:
-     *         - true se o valor for válido na posição especificada (não se repete na linha, coluna ou subgrade 3x3).
-     *         - false se o valor for inválido (já existe na linha, coluna ou subgrade 3x3).
+     * Preenche uma grade vazia de um tabuleiro com caixas de lado {@code boxSize}.
      */
-    private static boolean isValid(Board board, int row, int col, int value) {
-        for (int i = 0; i < 9; i++) {
-            if (board.getValue(row, i) == value || board.getValue(i, col) == value) {
-                return false;
+    static void fillGrid(int[] cells, int boxSize, RandomGenerator random) {
+        int n = boxSize * boxSize;
+        if (boxSize <= 3) {
+            fill(cells, 0, Topology.of(boxSize), new int[n], new int[n], new int[n], random);
+        } else {
+            shufflePattern(cells, boxSize, random);
+        }
+    }
+
+    private static boolean fill(int[] cells, int index, Topology topology, int[] rows, int[] cols, int[] boxes, RandomGenerator random) {
+        int n = topology.size;
+        if (index == cells.length) {
+            return true;
+        }
+        int row = topology.rowOf[index];
+        int col = topology.colOf[index];
+        int box = topology.boxOf[index];
+        int candidates = ~(rows[row] | cols[col] | boxes[box]) & ((1 << n) - 1);
+        while (candidates != 0) {
+            int bit = pickBit(candidates, random);
+            candidates &= ~bit;
+            rows[row] |= bit;
+            cols[col] |= bit;
+            boxes[box] |= bit;
+            cells[index] = Integer.numberOfTrailingZeros(bit) + 1;
+            if (fill(cells, index + 1, topology, rows, cols, boxes, random)) {
+                return true;
+            }
+            rows[row] &= ~bit;
+            cols[col] &= ~bit;
+            boxes[box] &= ~bit;
+        }
+        cells[index] = 0;
+        return false;
+    }
+
+    private static void shufflePattern(int[] cells, int boxSize, RandomGenerator random) {
+        int n = boxSize * boxSize;
+        int[] digits = permutation(n, random);
+        int[] rows = shuffledLines(boxSize, random);
+        int[] cols = shuffledLines(boxSize, random);
+        for (int r = 0; r < n; r++) {
+            int row = rows[r];
+            for (int c = 0; c < n; c++) {
+                cells[r * n + c] = digits[(boxSize * (row % boxSize) + row / boxSize + cols[c]) % n] + 1;
             }
         }
-        int rowStart = (row / 3) * 3;
-        int colStart = (col / 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board.getValue(rowStart + i, colStart + j) == value) {
-                    return false;
+    }
+
+    private static int[] shuffledLines(int boxSize, RandomGenerator random) {
+        int[] bands = permutation(boxSize, random);
+        int[] lines = new int[boxSize * boxSize];
+        for (int b = 0; b < boxSize; b++) {
+            int[] inBand = permutation(boxSize, random);
+            for (int i = 0; i < boxSize; i++) {
+                lines[b * boxSize + i] = bands[b] * boxSize + inBand[i];
+            }
+        }
+        return lines;
+    }
+
+    private static int[] permutation(int length, RandomGenerator random) {
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private static void digHoles(int[] cells, int boxSize, int clues, Difficulty difficulty, RandomGenerator random) {
+        int n = boxSize * boxSize;
+        int[] order = permutation(cells.length, random);
+
+        int[] rowClues = new int[n];
+        int[] colClues = new int[n];
+        Arrays.fill(rowClues, n);
+        Arrays.fill(colClues, n);
+        int min = difficulty.getMinCluesPerUnit(boxSize);
+        // No 9x9 toda verificação é rápida; nos tamanhos maiores, uma verificação que passa do limite
+        // mantém o valor na célula, o que preserva a unicidade e limita o tempo de geração.
+        long maxSteps = boxSize <= 3 ? Long.MAX_VALUE : 8L * cells.length;
+        Solver solver = SOLVERS[boxSize].poll();
+        if (solver == null) {
+            solver = new Solver(boxSize);
+        }
+        int rejected = 0;
+        int exceeded = 0;
+        try {
+            int remaining = cells.length;
+            for (int k = 0; k < cells.length && remaining > clues; k++) {
+                int cell = order[k];
+                int row = cell / n;
+                int col = cell % n;
+                if (rowClues[row] <= min || colClues[col] <= min) {
+                    continue;
                 }
+                int value = cells[cell];
+                cells[cell] = 0;
+                int solutions = solver.countSolutions(cells, 2, maxSteps);
+                if (solutions == 1) {
+                    rowClues[row]--;
+                    colClues[col]--;
+                    remaining--;
+                } else {
+                    cells[cell] = value;
+                    if (solutions < 0) {
+                        exceeded++;
+                    } else {
+                        rejected++;
+                    }
+                }
+            }
+        } finally {
+            SOLVERS[boxSize].offer(solver);
+        }
+        Metrics.add(Metrics.Counter.GENERATOR_REJECTED_REMOVALS, rejected);
+        Metrics.add(Metrics.Counter.GENERATOR_BUDGET_EXCEEDED, exceeded);
+    }
+
+    private static int pickBit(int mask, RandomGenerator random) {
+        int skip = random.nextInt(Integer.bitCount(mask));
+        while (skip-- > 0) {
+            mask &= mask - 1;
+        }
+        return Integer.lowestOneBit(mask);
+    }
+
+    /**
+     * Cria um tabuleiro a partir de um jogo em formato plano, com os valores marcados como gerados automaticamente.
+     */
+    static Board toBoard(int boxSize, int[] cells) {
+        Board board = new Board(boxSize);
+        copyGivens(cells, board);
+        return board;
+    }
+
+    private static void copyGivens(int[] cells, Board board) {
+        int n = board.getSize();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != 0) {
+                board.setAutoGeneratedValue(i / n, i % n, cells[i]);
             }
         }
-        return true;
     }
 }
@@ -0,0 +1,158 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class Grade {
+    /**
+     * Pontuação atribuída aos jogos que não podem ser concluídos apenas com as técnicas conhecidas.
+     */
+    public static final int UNSOLVED_SCORE = 100;
+
+    private final boolean solved;
+    private final int[] techniqueCounts;
+    private final int steps;
+    private final Technique hardest;
+
+    /**
+     * Construtor da classe Grade.
+     *
+     * @param solved Indica se o jogo foi concluído por dedução.
+     * @param techniqueCounts Quantas vezes cada técnica foi aplicada, indexado por {@link Technique#ordinal()}.
+     * @param steps O número total de passos aplicados.
+     * @param hardest A técnica de maior custo aplicada, ou {@code null} se nenhuma foi necessária.
+     */
+    Grade(boolean solved, int[] techniqueCounts, int steps, Technique hardest) {
+        this.solved = solved;
+        this.techniqueCounts = techniqueCounts;
+        this.steps = steps;
+        this.hardest = hardest;
+    }
+
+    /**
+     * Indica se o jogo foi concluído apenas com as técnicas de dedução.
+     *
+     * @return {@code true} se todas as células foram preenchidas por dedução.
+     */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Retorna a pontuação de dificuldade do jogo.
+     *
+     * A pontuação é o custo da técnica mais difícil que foi necessária, já que é ela que determina se
+     * o jogador consegue concluir o jogo. Jogos que não podem ser concluídos por dedução recebem
+     * {@link #UNSOLVED_SCORE}.
+     *
+     * @return A pontuação, de 0 a {@link #UNSOLVED_SCORE}.
+     */
+    public int getScore() {
+        if (!solved) {
+            return UNSOLVED_SCORE;
+        }
+        return hardest == null ? 0 : hardest.getCost();
+    }
+
+    /**
+     * Retorna o nível de dificuldade correspondente à técnica mais difícil necessária.
+     *
+     * @return O nível de dificuldade; {@link Difficulty#EXPERT} se o jogo não puder ser concluído por dedução.
+     */
+    public Difficulty getDifficulty() {
+        if (!solved) {
+            return Difficulty.EXPERT;
+        }
+        return hardest == null ? Difficulty.EASY : hardest.getDifficulty();
+    }
+
+    /**
+     * Retorna a técnica de maior custo aplicada.
+     *
+     * @return A técnica mais difícil, ou {@code null} se o jogo já estava completo.
+     */
+    public Technique getHardestTechnique() {
+        return hardest;
+    }
+
+    /**
+     * Retorna quantas vezes uma técnica foi aplicada.
+     *
+     * @param technique A técnica.
+     * @return O número de aplicações.
+     */
+    public int getCount(Technique technique) {
+        return techniqueCounts[technique.ordinal()];
+    }
+
+    /**
+     * Retorna o número total de passos aplicados.
+     *
+     * @return O número de passos.
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Um passo do registro de dedução: uma técnica aplicada e o seu efeito no tabuleiro.
+     */
+    public static class Step {
+        private final Technique technique;
+        private final int cell;
+        private final int value;
+        private final int eliminations;
+
+        Step(Technique technique, int cell, int value, int eliminations) {
+            this.technique = technique;
+            this.cell = cell;
+            this.value = value;
+            this.eliminations = eliminations;
+        }
+
+        /**
+         * Retorna a técnica aplicada.
+         *
+         * @return A técnica.
+         */
+        public Technique getTechnique() {
+            return technique;
+        }
+
+        /**
+         * Retorna a célula preenchida pelo passo, no formato {@code linha * 9 + coluna}.
+         *
+         * @return O índice da célula, ou {@code -1} se o passo apenas eliminou candidatos.
+         */
+        public int getCell() {
+            return cell;
+        }
+
+        /**
+         * Retorna o valor colocado na célula.
+         *
+         * @return O valor de 1 a 9, ou {@code 0} se o passo apenas eliminou candidatos.
+         */
+        public int getValue() {
+            return value;
+        }
+
+        /**
+         * Retorna quantos candidatos foram eliminados pelo passo.
+         *
+         * @return O número de candidatos eliminados.
+         */
+        public int getEliminations() {
+            return eliminations;
+        }
+
+        @Override
+        public String toString() {
+            if (cell >= 0) {
+                return technique.getDisplayName() + ": (" + (cell / 9 + 1) + "," + (cell % 9 + 1) + ") = " + value;
+            }
+            return technique.getDisplayName() + ": " + eliminations + " candidato(s) eliminado(s)";
+        }
+    }
+}
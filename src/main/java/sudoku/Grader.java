@@ -0,0 +1,522 @@
+package sudoku;
+import java.util.List;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class Grader {
+    private static final int[][] UNITS = Topology.NINE.unitCells;
+    private static final int[][] CELL_UNITS = new int[81][3];
+    private static final int[][] PEERS = Topology.NINE.peerCells;
+    private static final boolean[][] SEES = new boolean[81][81];
+
+    static {
+        for (int c = 0; c < 81; c++) {
+            System.arraycopy(Topology.NINE.cellUnits, 3 * c, CELL_UNITS[c], 0, 3);
+            for (int p : PEERS[c]) {
+                SEES[c][p] = true;
+            }
+        }
+    }
+
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    private final int[] values = new int[81];
+    private final int[] candidates = new int[81];
+    private final int[] techniqueCounts = new int[TECHNIQUES.length];
+    private final int[] unitCells = new int[9];
+    private final int[] positions = new int[9];
+    private final int[] colors = new int[81];
+    private final int[] queue = new int[81];
+    private List<Grade.Step> trace;
+    private int empty;
+    private int steps;
+    private boolean broken;
+    private Technique hardest;
+
+    /**
+     * Construtor da classe Grader.
+     *
+     * O avaliador resolve o jogo como um jogador humano, apenas com deduções lógicas, e mede a
+     * dificuldade pela técnica mais difícil que foi necessária. Ele mantém uma máscara de candidatos
+     * de 9 bits por célula, atualizada de forma incremental: ao colocar um valor, o bit correspondente
+     * é removido apenas dos 20 vizinhos da célula. Todo o estado é alocado uma única vez, de forma
+     * que a mesma instância pode avaliar muitos jogos em sequência.
+     *
+     * Uma instância não é segura para uso concorrente; cada thread deve possuir o seu próprio {@code Grader}.
+     */
+    public Grader() {
+    }
+
+    /**
+     * Avalia a dificuldade de um jogo.
+     *
+     * @param board O jogo a ser avaliado. Não é modificado.
+     * @return O resultado da avaliação.
+     */
+    public Grade grade(Board board) {
+        return grade(board, null);
+    }
+
+    /**
+     * Avalia a dificuldade de um jogo, registrando cada passo de dedução.
+     *
+     * A cada passo, as técnicas são tentadas em ordem crescente de custo (ver {@link Technique}) e a
+     * primeira que coloca um valor ou elimina algum candidato é aplicada; em seguida, a busca recomeça
+     * pela técnica mais barata. A avaliação termina quando o tabuleiro é completado ou quando nenhuma
+     * técnica consegue avançar. Jogos com valores repetidos ou sem solução não são concluídos.
+     *
+     * @param board O jogo a ser avaliado. Não é modificado.
+     * @param trace A lista que receberá os passos aplicados, na ordem, ou {@code null} para não registrá-los.
+     * @return O resultado da avaliação.
+     *
+     * @throws IllegalArgumentException Se o tabuleiro não for 9x9; as técnicas e a pontuação são calibradas para esse tamanho.
+     */
+    public Grade grade(Board board, List<Grade.Step> trace) {
+        if (board.getSize() != 9) {
+            throw new IllegalArgumentException("Apenas tabuleiros 9x9 podem ser avaliados: " + board.getSize() + "x" + board.getSize());
+        }
+        this.trace = trace;
+        load(board);
+        while (empty > 0 && !broken) {
+            if (!nakedSingle() && !broken && !hiddenSingle()
+                    && !intersection(true) && !intersection(false)
+                    && !nakedSubset(2, Technique.NAKED_PAIR) && !hiddenSubset(2, Technique.HIDDEN_PAIR)
+                    && !nakedSubset(3, Technique.NAKED_TRIPLE) && !hiddenSubset(3, Technique.HIDDEN_TRIPLE)
+                    && !fish(2, Technique.X_WING) && !fish(3, Technique.SWORDFISH)
+                    && !xyWing() && !simpleColoring()) {
+                break;
+            }
+        }
+        this.trace = null;
+        return new Grade(empty == 0 && !broken, techniqueCounts.clone(), steps, hardest);
+    }
+
+    private void load(Board board) {
+        empty = 0;
+        steps = 0;
+        broken = board.hasConflicts();
+        hardest = null;
+        for (int t = 0; t < techniqueCounts.length; t++) {
+            techniqueCounts[t] = 0;
+        }
+        for (int c = 0; c < 81; c++) {
+            values[c] = board.getValue(c / 9, c % 9);
+            if (values[c] == 0) {
+                candidates[c] = board.getCandidates(c / 9, c % 9);
+                empty++;
+            } else {
+                candidates[c] = 0;
+            }
+        }
+    }
+
+    private boolean nakedSingle() {
+        for (int c = 0; c < 81; c++) {
+            if (values[c] != 0) {
+                continue;
+            }
+            int mask = candidates[c];
+            if (mask == 0) {
+                broken = true;
+                return false;
+            }
+            if ((mask & (mask - 1)) == 0) {
+                place(Technique.NAKED_SINGLE, c, mask);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSingle() {
+        for (int[] unit : UNITS) {
+            int once = 0;
+            int twice = 0;
+            for (int c : unit) {
+                twice |= once & candidates[c];
+                once |= candidates[c];
+            }
+            int singles = once & ~twice;
+            if (singles != 0) {
+                int bit = Integer.lowestOneBit(singles);
+                for (int c : unit) {
+                    if ((candidates[c] & bit) != 0) {
+                        place(Technique.HIDDEN_SINGLE, c, bit);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Interseções entre caixas e linhas. Com {@code pointing}, um dígito que dentro de uma caixa só
+     * aparece em uma linha (ou coluna) é eliminado do restante dessa linha; caso contrário, um dígito
+     * que dentro de uma linha (ou coluna) só aparece em uma caixa é eliminado do restante da caixa.
+     */
+    private boolean intersection(boolean pointing) {
+        int first = pointing ? 18 : 0;
+        int last = pointing ? 27 : 18;
+        for (int u = first; u < last; u++) {
+            for (int bit = 1; bit < 0x200; bit <<= 1) {
+                int target = -1;
+                for (int slot = pointing ? 0 : 2; slot < (pointing ? 2 : 3) && target < 0; slot++) {
+                    int shared = -1;
+                    for (int c : UNITS[u]) {
+                        if ((candidates[c] & bit) == 0) {
+                            continue;
+                        }
+                        int other = CELL_UNITS[c][slot];
+                        if (shared == -1) {
+                            shared = other;
+                        } else if (shared != other) {
+                            shared = -2;
+                            break;
+                        }
+                    }
+                    if (shared >= 0) {
+                        target = shared;
+                    }
+                }
+                if (target < 0) {
+                    continue;
+                }
+                int removed = 0;
+                for (int c : UNITS[target]) {
+                    if (!inUnit(c, u)) {
+                        removed += eliminate(c, bit);
+                    }
+                }
+                if (removed > 0) {
+                    record(pointing ? Technique.POINTING : Technique.BOX_LINE, -1, 0, removed);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedSubset(int size, Technique technique) {
+        for (int[] unit : UNITS) {
+            int count = 0;
+            for (int c : unit) {
+                int bits = Integer.bitCount(candidates[c]);
+                if (bits >= 2 && bits <= size) {
+                    unitCells[count++] = c;
+                }
+            }
+            if (count < size) {
+                continue;
+            }
+            for (int subset = 0; subset < 1 << count; subset++) {
+                if (Integer.bitCount(subset) != size) {
+                    continue;
+                }
+                int union = 0;
+                for (int i = 0; i < count; i++) {
+                    if ((subset & (1 << i)) != 0) {
+                        union |= candidates[unitCells[i]];
+                    }
+                }
+                if (Integer.bitCount(union) != size) {
+                    continue;
+                }
+                int removed = 0;
+                for (int c : unit) {
+                    if (!inSubset(c, subset, count)) {
+                        removed += eliminate(c, union);
+                    }
+                }
+                if (removed > 0) {
+                    record(technique, -1, 0, removed);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSubset(int size, Technique technique) {
+        for (int[] unit : UNITS) {
+            int eligible = 0;
+            for (int d = 0; d < 9; d++) {
+                positions[d] = 0;
+                for (int i = 0; i < 9; i++) {
+                    if ((candidates[unit[i]] & (1 << d)) != 0) {
+                        positions[d] |= 1 << i;
+                    }
+                }
+                int bits = Integer.bitCount(positions[d]);
+                if (bits >= 2 && bits <= size) {
+                    eligible |= 1 << d;
+                }
+            }
+            if (Integer.bitCount(eligible) < size) {
+                continue;
+            }
+            for (int digits = eligible; digits != 0; digits = (digits - 1) & eligible) {
+                if (Integer.bitCount(digits) != size) {
+                    continue;
+                }
+                int cells = 0;
+                for (int d = 0; d < 9; d++) {
+                    if ((digits & (1 << d)) != 0) {
+                        cells |= positions[d];
+                    }
+                }
+                if (Integer.bitCount(cells) != size) {
+                    continue;
+                }
+                int removed = 0;
+                for (int i = 0; i < 9; i++) {
+                    if ((cells & (1 << i)) != 0) {
+                        removed += eliminate(unit[i], ~digits & 0x1FF);
+                    }
+                }
+                if (removed > 0) {
+                    record(technique, -1, 0, removed);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Peixes de tamanho {@code size} (X-Wing com 2, Swordfish com 3): se um dígito, em {@code size}
+     * linhas, só aparece nas mesmas {@code size} colunas, ele é eliminado dessas colunas nas demais
+     * linhas. O mesmo vale trocando linhas por colunas.
+     */
+    private boolean fish(int size, Technique technique) {
+        for (int bit = 1; bit < 0x200; bit <<= 1) {
+            for (int base = 0; base < 18; base += 9) {
+                int cover = base == 0 ? 9 : 0;
+                int eligible = 0;
+                for (int line = 0; line < 9; line++) {
+                    positions[line] = 0;
+                    for (int i = 0; i < 9; i++) {
+                        if ((candidates[UNITS[base + line][i]] & bit) != 0) {
+                            positions[line] |= 1 << i;
+                        }
+                    }
+                    int bits = Integer.bitCount(positions[line]);
+                    if (bits >= 2 && bits <= size) {
+                        eligible |= 1 << line;
+                    }
+                }
+                for (int lines = eligible; lines != 0; lines = (lines - 1) & eligible) {
+                    if (Integer.bitCount(lines) != size) {
+                        continue;
+                    }
+                    int covered = 0;
+                    for (int line = 0; line < 9; line++) {
+                        if ((lines & (1 << line)) != 0) {
+                            covered |= positions[line];
+                        }
+                    }
+                    if (Integer.bitCount(covered) != size) {
+                        continue;
+                    }
+                    int removed = 0;
+                    for (int i = 0; i < 9; i++) {
+                        if ((covered & (1 << i)) == 0) {
+                            continue;
+                        }
+                        for (int line = 0; line < 9; line++) {
+                            if ((lines & (1 << line)) == 0) {
+                                removed += eliminate(UNITS[cover + i][line], bit);
+                            }
+                        }
+                    }
+                    if (removed > 0) {
+                        record(technique, -1, 0, removed);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * XY-Wing: uma célula pivô com candidatos {x, y} enxerga uma célula {x, z} e outra {y, z}.
+     * Qualquer que seja o valor do pivô, uma das duas pontas será z, então z é eliminado das
+     * células que enxergam ambas as pontas.
+     */
+    private boolean xyWing() {
+        for (int pivot = 0; pivot < 81; pivot++) {
+            int xy = candidates[pivot];
+            if (Integer.bitCount(xy) != 2) {
+                continue;
+            }
+            for (int a : PEERS[pivot]) {
+                int xz = candidates[a];
+                if (Integer.bitCount(xz) != 2 || Integer.bitCount(xz & xy) != 1) {
+                    continue;
+                }
+                int z = xz & ~xy;
+                int yz = (xy & ~xz) | z;
+                for (int b : PEERS[pivot]) {
+                    if (b == a || candidates[b] != yz) {
+                        continue;
+                    }
+                    int removed = 0;
+                    for (int c : PEERS[a]) {
+                        if (c != b && SEES[b][c]) {
+                            removed += eliminate(c, z);
+                        }
+                    }
+                    if (removed > 0) {
+                        record(Technique.XY_WING, -1, 0, removed);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Coloração simples: para um dígito, as células ligadas por pares conjugados (unidades em que o
+     * dígito só tem duas posições) recebem cores alternadas, pois exatamente uma das cores é verdadeira.
+     * Se duas células da mesma cor se enxergam, essa cor é falsa; e uma célula fora da cadeia que
+     * enxerga as duas cores não pode conter o dígito.
+     */
+    private boolean simpleColoring() {
+        for (int bit = 1; bit < 0x200; bit <<= 1) {
+            for (int c = 0; c < 81; c++) {
+                colors[c] = 0;
+            }
+            for (int start = 0; start < 81; start++) {
+                if ((candidates[start] & bit) == 0 || colors[start] != 0) {
+                    continue;
+                }
+                int size = colorChain(start, bit);
+                if (size < 3) {
+                    continue;
+                }
+                int removed = 0;
+                for (int i = 0; i < size && removed == 0; i++) {
+                    for (int j = i + 1; j < size; j++) {
+                        int a = queue[i];
+                        int b = queue[j];
+                        if (colors[a] == colors[b] && SEES[a][b]) {
+                            int wrong = colors[a];
+                            for (int k = 0; k < size; k++) {
+                                if (colors[queue[k]] == wrong) {
+                                    removed += eliminate(queue[k], bit);
+                                }
+                            }
+                            break;
+                        }
+                    }
+                }
+                if (removed == 0) {
+                    int color = colors[start];
+                    int opposite = (color & 1) == 1 ? color + 1 : color - 1;
+                    for (int c = 0; c < 81; c++) {
+                        if ((candidates[c] & bit) == 0 || colors[c] == color || colors[c] == opposite) {
+                            continue;
+                        }
+                        boolean seesColor = false;
+                        boolean seesOpposite = false;
+                        for (int i = 0; i < size; i++) {
+                            if (SEES[c][queue[i]]) {
+                                seesColor |= colors[queue[i]] == color;
+                                seesOpposite |= colors[queue[i]] == opposite;
+                            }
+                        }
+                        if (seesColor && seesOpposite) {
+                            removed += eliminate(c, bit);
+                        }
+                    }
+                }
+                if (removed > 0) {
+                    record(Technique.SIMPLE_COLORING, -1, 0, removed);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Colore, por busca em largura, a cadeia de pares conjugados que contém {@code start}. As células
+     * coloridas ficam em {@code queue}, e as duas cores da cadeia são {@code 2k + 1} e {@code 2k + 2}.
+     *
+     * @return O número de células da cadeia.
+     */
+    private int colorChain(int start, int bit) {
+        int color = start * 2 + 1;
+        colors[start] = color;
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int c = queue[head++];
+            int opposite = colors[c] == color ? color + 1 : color;
+            for (int u : CELL_UNITS[c]) {
+                int partner = -1;
+                int count = 0;
+                for (int p : UNITS[u]) {
+                    if ((candidates[p] & bit) != 0) {
+                        count++;
+                        if (p != c) {
+                            partner = p;
+                        }
+                    }
+                }
+                if (count == 2 && colors[partner] == 0) {
+                    colors[partner] = opposite;
+                    queue[tail++] = partner;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private void place(Technique technique, int cell, int bit) {
+        int value = Integer.numberOfTrailingZeros(bit) + 1;
+        values[cell] = value;
+        candidates[cell] = 0;
+        empty--;
+        for (int p : PEERS[cell]) {
+            candidates[p] &= ~bit;
+        }
+        record(technique, cell, value, 0);
+    }
+
+    private int eliminate(int cell, int mask) {
+        int removed = candidates[cell] & mask;
+        candidates[cell] &= ~mask;
+        return Integer.bitCount(removed);
+    }
+
+    private void record(Technique technique, int cell, int value, int eliminations) {
+        techniqueCounts[technique.ordinal()]++;
+        steps++;
+        if (hardest == null || technique.getCost() > hardest.getCost()) {
+            hardest = technique;
+        }
+        if (trace != null) {
+            trace.add(new Grade.Step(technique, cell, value, eliminations));
+        }
+    }
+
+    private boolean inUnit(int cell, int unit) {
+        int[] units = CELL_UNITS[cell];
+        return units[0] == unit || units[1] == unit || units[2] == unit;
+    }
+
+    private boolean inSubset(int cell, int subset, int count) {
+        for (int i = 0; i < count; i++) {
+            if ((subset & (1 << i)) != 0 && unitCells[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class Hint {
+    private final int row;
+    private final int col;
+    private final int value;
+    private final int candidates;
+    private final Technique technique;
+    private final String reason;
+
+    /**
+     * Construtor da classe Hint.
+     *
+     * Uma dica aponta uma célula e, quando possível, o valor que deve ser colocado nela, junto com o
+     * motivo. Quando nenhum valor pode ser deduzido diretamente, a dica aponta a célula mais promissora
+     * e os seus candidatos.
+     *
+     * @param row A linha da célula (de 0 a N-1, onde N é o lado do tabuleiro).
+     * @param col A coluna da célula (de 0 a N-1).
+     * @param value O valor sugerido (de 1 a N), ou {@code 0} se nenhum valor pôde ser deduzido.
+     * @param candidates A máscara de candidatos da célula.
+     * @param technique A técnica que justifica o valor, ou {@code null} se a dica não sugere um valor.
+     * @param reason A explicação da dica para o jogador.
+     */
+    Hint(int row, int col, int value, int candidates, Technique technique, String reason) {
+        this.row = row;
+        this.col = col;
+        this.value = value;
+        this.candidates = candidates;
+        this.technique = technique;
+        this.reason = reason;
+    }
+
+    /**
+     * Retorna a linha da célula indicada.
+     *
+     * @return A linha, de 0 a N-1.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Retorna a coluna da célula indicada.
+     *
+     * @return A coluna, de 0 a N-1.
+     */
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * Retorna o valor sugerido para a célula.
+     *
+     * @return O valor de 1 a N, ou {@code 0} se a dica não sugere um valor.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Retorna os candidatos da célula como uma máscara de 9 bits.
+     *
+     * @return A máscara de candidatos, onde o bit {@code v - 1} indica o valor {@code v}.
+     */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Retorna a técnica que justifica o valor sugerido.
+     *
+     * @return A técnica, ou {@code null} se a dica não sugere um valor.
+     */
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    /**
+     * Retorna a explicação da dica para o jogador.
+     *
+     * @return O motivo da dica.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        String cell = "(" + (row + 1) + "," + (col + 1) + ")";
+        if (value != 0) {
+            return "Jogue " + value + " em " + cell + ". " + reason;
+        }
+        return "Observe a célula " + cell + ". " + reason;
+    }
+}
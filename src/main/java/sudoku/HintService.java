@@ -0,0 +1,173 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class HintService {
+    private final Board board;
+    private final int size;
+    private final Topology topology;
+    private final int[][] units;
+    private final int[][] peers;
+    private final int[] candidates;
+    private final long[] singles;
+    private final ValidationResult validation = new ValidationResult();
+
+    /**
+     * Construtor da classe HintService.
+     *
+     * O serviço mantém, para o tabuleiro de um jogo, uma grade com a máscara de candidatos de cada
+     * célula e um conjunto de bits com as células que têm um único candidato. A grade é calculada por
+     * completo apenas aqui; depois, cada jogada deve ser informada por {@link #cellChanged(int, int)},
+     * que atualiza somente a célula alterada e os seus 20 vizinhos. Assim, uma dica é respondida sem
+     * reconstruir conjuntos nem resolver o jogo.
+     *
+     * Tabuleiros de outros tamanhos usam as mesmas estruturas, com as unidades e vizinhos do tamanho
+     * correspondente (por exemplo, 39 vizinhos no 16x16), lidas das tabelas de {@link Topology}.
+     *
+     * @param board O tabuleiro acompanhado pelo serviço.
+     */
+    public HintService(Board board) {
+        this.board = board;
+        size = board.getSize();
+        topology = board.getTopology();
+        units = topology.unitCells;
+        peers = topology.peerCells;
+        candidates = new int[size * size];
+        singles = new long[(size * size + 63) / 64];
+        for (int cell = 0; cell < candidates.length; cell++) {
+            refresh(cell);
+        }
+    }
+
+    /**
+     * Atualiza a grade de candidatos depois que o valor de uma célula foi alterado no tabuleiro.
+     *
+     * @param row A linha da célula alterada (de 0 a N-1, onde N é o lado do tabuleiro).
+     * @param col A coluna da célula alterada (de 0 a N-1).
+     */
+    public void cellChanged(int row, int col) {
+        int cell = row * size + col;
+        refresh(cell);
+        for (int peer : peers[cell]) {
+            refresh(peer);
+        }
+    }
+
+    /**
+     * Retorna os candidatos de uma célula a partir da grade mantida pelo serviço.
+     *
+     * @param row A linha da célula (de 0 a N-1).
+     * @param col A coluna da célula (de 0 a N-1).
+     * @return A máscara de candidatos, onde o bit {@code v - 1} indica o valor {@code v}; {@code 0} se a célula estiver preenchida.
+     */
+    public int getCandidates(int row, int col) {
+        return candidates[row * size + col];
+    }
+
+    /**
+     * Sugere a melhor próxima jogada e o motivo.
+     *
+     * As verificações são feitas da mais útil para a menos útil:
+     * - se há valores repetidos, a dica aponta uma das células em conflito, já que nenhuma dedução é 
+     *   confiável enquanto o erro não for corrigido;
+     * - uma célula com um único candidato (candidato único), obtida diretamente do conjunto mantido;
+     * - um valor que só cabe em uma célula de uma linha, coluna ou caixa (posição única);
+     * - uma célula vazia sem candidatos, sinal de que alguma jogada anterior está errada;
+     * - por fim, a célula vazia com menos candidatos, sem sugerir valor.
+     *
+     * @return A dica, ou {@code null} se o tabuleiro estiver completo.
+     */
+    public Hint nextMove() {
+        OperationEvent measurement = Metrics.start();
+        try {
+            return findMove();
+        } finally {
+            Metrics.stop(Metrics.Operation.HINT, measurement);
+        }
+    }
+
+    private Hint findMove() {
+        if (board.hasConflicts()) {
+            Validator.validate(board, validation);
+            int cell = validation.getConflictingCell(0);
+            return new Hint(cell / size, cell % size, 0, 0, null, "O valor desta célula se repete na linha, coluna ou quadrado.");
+        }
+        for (int word = 0; word < singles.length; word++) {
+            if (singles[word] != 0) {
+                int cell = word * 64 + Long.numberOfTrailingZeros(singles[word]);
+                int mask = candidates[cell];
+                return new Hint(cell / size, cell % size, Integer.numberOfTrailingZeros(mask) + 1, mask, Technique.NAKED_SINGLE,
+                        "É o único valor que não se repete na linha, coluna ou quadrado da célula.");
+            }
+        }
+        for (int u = 0; u < units.length; u++) {
+            int[] unit = units[u];
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                twice |= once & candidates[cell];
+                once |= candidates[cell];
+            }
+            int hidden = once & ~twice;
+            if (hidden == 0) {
+                continue;
+            }
+            int bit = Integer.lowestOneBit(hidden);
+            for (int cell : unit) {
+                if ((candidates[cell] & bit) != 0) {
+                    String name = u < size ? "na linha" : u < 2 * size ? "na coluna" : "no quadrado";
+                    return new Hint(cell / size, cell % size, Integer.numberOfTrailingZeros(bit) + 1, candidates[cell], Technique.HIDDEN_SINGLE,
+                            "É a única célula " + name + " onde este valor pode ser colocado.");
+                }
+            }
+        }
+        int best = -1;
+        for (int cell = 0; cell < candidates.length; cell++) {
+            if (board.getValue(cell) != 0) {
+                continue;
+            }
+            if (candidates[cell] == 0) {
+                return new Hint(cell / size, cell % size, 0, 0, null, "Nenhum valor cabe nesta célula; alguma jogada anterior está errada.");
+            }
+            if (best < 0 || Integer.bitCount(candidates[cell]) < Integer.bitCount(candidates[best])) {
+                best = cell;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        return new Hint(best / size, best % size, 0, candidates[best], null,
+                "É a célula com menos candidatos: " + describe(candidates[best]) + ".");
+    }
+
+    /**
+     * Formata uma máscara de candidatos como uma lista, por exemplo {@code [1, 4, 7]}.
+     *
+     * @param mask A máscara de candidatos.
+     * @return A lista de valores da máscara.
+     */
+    public static String describe(int mask) {
+        StringBuilder text = new StringBuilder("[");
+        while (mask != 0) {
+            if (text.length() > 1) {
+                text.append(", ");
+            }
+            text.append(Integer.numberOfTrailingZeros(mask) + 1);
+            mask &= mask - 1;
+        }
+        return text.append(']').toString();
+    }
+
+    private void refresh(int cell) {
+        int mask = board.getValue(cell) == 0 ? board.getCandidates(topology.rowOf[cell], topology.colOf[cell]) : 0;
+        candidates[cell] = mask;
+        long bit = 1L << (cell & 63);
+        if (mask != 0 && (mask & (mask - 1)) == 0) {
+            singles[cell >>> 6] |= bit;
+        } else {
+            singles[cell >>> 6] &= ~bit;
+        }
+    }
+}
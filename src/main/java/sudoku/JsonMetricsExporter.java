@@ -0,0 +1,55 @@
+package sudoku;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class JsonMetricsExporter implements MetricsExporter {
+    private final Writer writer;
+
+    /**
+     * Construtor da classe JsonMetricsExporter.
+     *
+     * @param writer O destino do documento. Não é fechado pelo exportador.
+     */
+    public JsonMetricsExporter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Escreve as métricas como um único objeto JSON, em uma linha, no formato
+     * {@code {"latencies":{"validate":{"count":..,"mean":..,"p50":..,"p99":..,"p999":..,"max":..},...},"counters":{...}}},
+     * com as latências em nanossegundos. Todas as operações e contadores são incluídos, mesmo sem medidas,
+     * para que o formato seja sempre o mesmo.
+     */
+    @Override
+    public void export(Map<Metrics.Operation, LatencyHistogram> latencies, Map<Metrics.Counter, Long> counters) throws IOException {
+        StringBuilder json = new StringBuilder("{\"latencies\":{");
+        String separator = "";
+        for (Map.Entry<Metrics.Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            json.append(separator).append('"').append(entry.getKey().name().toLowerCase(Locale.ROOT)).append("\":{")
+                    .append("\"count\":").append(histogram.getCount())
+                    .append(",\"mean\":").append(Math.round(histogram.getMean()))
+                    .append(",\"p50\":").append(histogram.getValueAtPercentile(50))
+                    .append(",\"p99\":").append(histogram.getValueAtPercentile(99))
+                    .append(",\"p999\":").append(histogram.getValueAtPercentile(99.9))
+                    .append(",\"max\":").append(histogram.getMax())
+                    .append('}');
+            separator = ",";
+        }
+        json.append("},\"counters\":{");
+        separator = "";
+        for (Map.Entry<Metrics.Counter, Long> entry : counters.entrySet()) {
+            json.append(separator).append('"').append(entry.getKey().name().toLowerCase(Locale.ROOT)).append("\":").append(entry.getValue());
+            separator = ",";
+        }
+        json.append("}}\n");
+        writer.write(json.toString());
+        writer.flush();
+    }
+}
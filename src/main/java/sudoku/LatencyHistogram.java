@@ -0,0 +1,124 @@
+package sudoku;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /*
+     * Baldes log-lineares, como no HdrHistogram: os valores abaixo de 16 têm um balde cada, e cada potência
+     * de dois acima disso é dividida em 16 baldes de mesma largura. O erro relativo de qualquer valor
+     * registrado fica abaixo de 1/16 (cerca de 6%), com 960 baldes cobrindo de 1 ns a séculos. Registrar um
+     * valor é um incremento atômico em um balde, sem travas nem alocação.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra uma medida. Pode ser chamado por várias threads ao mesmo tempo.
+     *
+     * @param nanos A duração medida, em nanossegundos. Valores negativos são tratados como zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de medidas registradas.
+     *
+     * @return O número de chamadas a {@link #record(long)}.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Retorna a maior medida registrada.
+     *
+     * @return O valor máximo, em nanossegundos, ou 0 se não houver medidas.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Retorna a média das medidas registradas.
+     *
+     * @return A média, em nanossegundos, ou 0 se não houver medidas.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0.0 : (double) total.sum() / count;
+    }
+
+    /**
+     * Retorna o valor abaixo do qual está a porcentagem informada das medidas.
+     *
+     * O valor retornado é o maior valor do balde em que o percentil cai, portanto nunca subestima a
+     * latência em mais do que a precisão do histograma.
+     *
+     * @param percentile O percentil, de 0 a 100 (por exemplo, 99.9).
+     * @return O valor do percentil, em nanossegundos, ou 0 se não houver medidas.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Apaga todas as medidas registradas.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        max.set(0);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
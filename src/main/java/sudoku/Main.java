@@ -14,9 +14,24 @@ public class Main {
  * O método principal organiza a execução inicial da aplicação, preparando o ambiente 
  * para interações posteriores com o usuário.
  * 
- * @param args argumentos de linha de comando (não utilizados neste caso).
+ * Quando argumentos são informados, a aplicação roda sem interação, no modo em lote de 
+ * {@link BatchProcessor}, e termina com o código de saída retornado por ele. Com {@code server}, 
+ * a aplicação atende várias sessões de jogo pela rede por meio de {@link GameServer}. No modo 
+ * interativo, os jogos mais comuns começam a ser gerados em segundo plano pelo {@link PuzzleCache} 
+ * enquanto o menu é exibido.
+ * 
+ * @param args argumentos de linha de comando: vazio para o modo interativo, 
+ *             {@code solve|validate|dedup [entrada|-] [saida|-] [--threads N] [--metrics text|json]} para o modo em lote, ou 
+ *             {@code server [porta] [diretório]} para o servidor de jogos.
  */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("server")) {
+            System.exit(GameServer.run(args));
+        }
+        if (args.length > 0) {
+            System.exit(BatchProcessor.run(args));
+        }
+        PuzzleCache.shared().prefetchDefaults();
         Menu menu = new Menu();
         menu.displayWelcomeScreen();
     }
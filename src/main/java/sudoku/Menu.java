@@ -1,4 +1,7 @@
 package sudoku;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.InputMismatchException;
 import java.util.Scanner;
 
@@ -7,12 +10,48 @@ import java.util.Scanner;
  * @author caiofdev
  */
 public class Menu {
+    private final boolean allowFiles;
+    private final GameStore store;
     private Game game;
+
+    /**
+     * Construtor da classe Menu, com todas as opções disponíveis.
+     */
+    public Menu() {
+        this(true);
+    }
+
+    /**
+     * Construtor da classe Menu.
+     * 
+     * @param allowFiles Se a opção de carregar um jogo de um arquivo deve ser oferecida. Sessões remotas 
+     *                   de {@link GameServer} a desativam, para que um jogador não possa abrir arquivos 
+     *                   do servidor.
+     */
+    public Menu(boolean allowFiles) {
+        this(allowFiles, null);
+    }
+
+    /**
+     * Construtor da classe Menu, com os jogos salvos em um {@link GameStore}.
+     * 
+     * Cada jogo 9x9 iniciado pelo menu é salvo no {@code GameStore}, e o seu número é exibido ao jogador, 
+     * que pode retomá-lo pela opção "Retomar jogo salvo" depois de uma desconexão ou de uma 
+     * reinicialização do servidor.
+     * 
+     * @param allowFiles Se a opção de carregar um jogo de um arquivo deve ser oferecida.
+     * @param store Os jogos salvos, ou {@code null} para não salvar os jogos.
+     */
+    public Menu(boolean allowFiles, GameStore store) {
+        this.allowFiles = allowFiles;
+        this.store = store;
+    }
+
     /**
      * Exibe a tela de boas-vindas e permite que o usuário escolha como iniciar o jogo de Sudoku.
      * 
-     * O método apresenta ao usuário um menu com opções para gerar um jogo aleatório ou 
-     * configurar manualmente os valores iniciais do tabuleiro. Dependendo da escolha, ele 
+     * O método apresenta ao usuário um menu com opções para gerar um jogo aleatório, 
+     * configurar manualmente os valores iniciais do tabuleiro ou carregar um jogo de um arquivo. Dependendo da escolha, ele 
      * inicializa o jogo adequadamente e lida com entradas do usuário.
      * 
      * Em caso de erros, mensagens detalhadas são exibidas para ajudar na identificação 
@@ -23,28 +62,63 @@ public class Menu {
      *  O usuário escolhe entre gerar um jogo aleatório ou configurar o tabuleiro.
      *  Se optar por um jogo aleatório, é solicitado o número de valores a serem sorteados.
      *  Se optar por configurar o jogo, o usuário pode inserir valores iniciais no formato "linha, coluna, valor".
+     *  Se optar por carregar um jogo, o usuário informa um arquivo gravado por {@code PuzzleStoreWriter} e o 
+     *  número do jogo desejado, que é lido diretamente do arquivo mapeado em memória.
+     *  Se optar por outro tamanho, o usuário informa o lado das caixas e a dificuldade, e um jogo 4x4, 
+     *  16x16 ou 25x25 é gerado.
+     *  Se optar por um código, o usuário informa o código de 16 dígitos hexadecimais de um jogo, ou deixa em 
+     *  branco para sortear um, e a dificuldade; o jogo é gerado por {@link PuzzleId} e o código é exibido, 
+     *  para que o mesmo jogo possa ser aberto em outra máquina.
+     *  Se houver jogos salvos, o usuário pode retomar um deles pelo número exibido quando foi iniciado.
      *  O jogo é então iniciado com os valores fornecidos ou gerados.
      * 
      * @throws InputMismatchException se a entrada do usuário for inválida ao escolher opções ou inserir valores.
      * @throws Exception se ocorrer um erro durante a configuração ou início do jogo, exibindo detalhes sobre o erro.
      */
     public void displayWelcomeScreen() {
-        Scanner scanner = new Scanner(System.in);
-        System.out.println("---Bem-vindo ao Sudoku!---");
-        System.out.println("\nEscolha uma opção:");
-        System.out.println("1. Gerar jogo aleatório");
-        System.out.println("2. Definir jogo");
+        displayWelcomeScreen(new Scanner(System.in), System.out);
+    }
+
+    /**
+     * Exibe a tela de boas-vindas lendo as opções de uma entrada e escrevendo em uma saída informadas.
+     * 
+     * Funciona como {@link #displayWelcomeScreen()}, mas o menu e o jogo iniciado a partir dele usam 
+     * {@code scanner} e {@code out} em vez do console, o que permite conduzir várias sessões ao mesmo 
+     * tempo, cada uma com a sua própria conexão.
+     * 
+     * @param scanner A entrada da qual as opções são lidas.
+     * @param out A saída na qual o menu e o jogo são escritos.
+     */
+    public void displayWelcomeScreen(Scanner scanner, PrintStream out) {
+        out.println("---Bem-vindo ao Sudoku!---");
+        out.println("\nEscolha uma opção:");
+        out.println("1. Gerar jogo aleatório");
+        out.println("2. Definir jogo");
+        if (allowFiles) {
+            out.println("3. Carregar jogo de um arquivo");
+        }
+        out.println("4. Gerar jogo de outro tamanho (4x4, 16x16 ou 25x25)");
+        out.println("5. Jogar pelo código de um jogo");
+        if (store != null) {
+            out.println("6. Retomar jogo salvo");
+        }
         int choice = scanner.nextInt();
         scanner.nextLine();
         
         if(choice == 1) {
-            System.out.println("Quantos números você deseja sortear?");
+            out.println("Quantos números você deseja sortear?");
             int num = scanner.nextInt();
             scanner.nextLine();
-            game = new Game(num);
+            try {
+                game = new Game(num);
+            } catch (Exception e) {
+                StackTraceElement element = e.getStackTrace()[0];
+                out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
+                return;
+            }
         } else if (choice == 2){
             game = new Game();
-            System.out.println("Defina os valores iniciais do jogo no formato (linha, coluna, valor). Digite X para encerrar.");
+            out.println("Defina os valores iniciais do jogo no formato (linha, coluna, valor). Digite X para encerrar.");
             while (true) {
                 String input = scanner.nextLine();
                 if (input.equals("X")) {
@@ -54,15 +128,86 @@ public class Menu {
                     game.setInitialValues(input);
                 }catch(Exception e) {
                     StackTraceElement element = e.getStackTrace()[0];
-                    System.out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
+                    out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
                 }
             }
+            long solutions = game.countSolutions(2);
+            if (solutions == 0) {
+                out.println("Atenção: o jogo definido não tem solução.");
+            } else if (solutions > 1) {
+                out.println("Atenção: o jogo definido tem mais de uma solução.");
+            }
+        } else if (choice == 3 && allowFiles) {
+            out.println("Informe o caminho do arquivo de jogos:");
+            String path = scanner.nextLine();
+            try (PuzzleStore store = PuzzleStore.open(Path.of(path))) {
+                out.println("O arquivo contém " + store.size() + " jogos. Qual deseja carregar?");
+                long number = scanner.nextLong();
+                scanner.nextLine();
+                game = new Game(store.get(number - 1));
+            } catch (Exception e) {
+                StackTraceElement element = e.getStackTrace()[0];
+                out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
+                return;
+            }
+        } else if (choice == 4) {
+            out.println("Informe o lado das caixas (2 para 4x4, 4 para 16x16, 5 para 25x25):");
+            int boxSize = scanner.nextInt();
+            out.println("Escolha a dificuldade: 1. Fácil, 2. Médio, 3. Difícil, 4. Especialista");
+            int level = scanner.nextInt();
+            scanner.nextLine();
+            try {
+                Difficulty difficulty = Difficulty.values()[level - 1];
+                game = new Game(boxSize, difficulty.getDefaultClues(boxSize), difficulty);
+            } catch (Exception e) {
+                StackTraceElement element = e.getStackTrace()[0];
+                out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
+                return;
+            }
+        } else if (choice == 5) {
+            out.println("Informe o código do jogo (deixe em branco para sortear um):");
+            String code = scanner.nextLine();
+            out.println("Escolha a dificuldade: 1. Fácil, 2. Médio, 3. Difícil, 4. Especialista");
+            int level = scanner.nextInt();
+            scanner.nextLine();
+            try {
+                long id = code.isBlank() ? PuzzleId.random() : PuzzleId.parse(code);
+                Difficulty difficulty = Difficulty.values()[level - 1];
+                game = new Game(PuzzleId.generate(id, difficulty));
+                out.println("Código do jogo: " + PuzzleId.format(id) + " (dificuldade " + level + ")");
+            } catch (Exception e) {
+                StackTraceElement element = e.getStackTrace()[0];
+                out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
+                return;
+            }
+        } else if (choice == 6 && store != null) {
+            out.println("Informe o número do jogo salvo:");
+            long id = scanner.nextLong();
+            scanner.nextLine();
+            try {
+                game = Game.resume(store, id);
+            } catch (Exception e) {
+                StackTraceElement element = e.getStackTrace()[0];
+                out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
+                return;
+            }
+        }
+        if (store != null && choice != 6 && game != null && game.getBoard().getSize() == 9) {
+            try {
+                out.println("Jogo salvo com o número " + game.save(store) + ". Use a opção 6 do menu inicial para retomá-lo.");
+            } catch (IOException e) {
+                out.println("ERRO: não foi possível salvar o jogo: " + e.getMessage());
+            }
         }
         try {
-            game.start();
+            if (game == null) {
+                out.println("Opção inválida.");
+                return;
+            }
+            game.start(scanner, out);
         }catch(Exception e) {
             StackTraceElement element = e.getStackTrace()[0];
-            System.out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
+            out.println("ERRO: " + e.getMessage() + " -- ARQUIVO: " + element.getFileName() + " -- LINHA: " + element.getLineNumber());
         }
     }
 }
@@ -0,0 +1,205 @@
+package sudoku;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class Metrics {
+    /**
+     * As operações cuja latência é medida.
+     */
+    public enum Operation {
+        /**
+         * {@link Validator#validate(Board, ValidationResult)}.
+         */
+        VALIDATE,
+        /**
+         * {@link HintService#nextMove()}.
+         */
+        HINT,
+        /**
+         * A geração de um jogo por {@link Generator}.
+         */
+        GENERATE,
+        /**
+         * {@link Solver#solve(Board)} e {@link Solver#countSolutions(Board, int)}.
+         */
+        SOLVE
+    }
+
+    /**
+     * Os contadores de eventos do gerador e do cache de jogos.
+     */
+    public enum Counter {
+        /**
+         * Remoções de valores desfeitas porque o jogo deixaria de ter solução única.
+         */
+        GENERATOR_REJECTED_REMOVALS,
+        /**
+         * Verificações de unicidade interrompidas por excederem o limite de passos (16x16 e 25x25).
+         */
+        GENERATOR_BUDGET_EXCEEDED,
+        /**
+         * Jogos entregues por {@link PuzzleCache} a partir do estoque.
+         */
+        PUZZLE_CACHE_HITS,
+        /**
+         * Jogos que {@link PuzzleCache} precisou gerar na hora, por falta de estoque.
+         */
+        PUZZLE_CACHE_MISSES
+    }
+
+    private static final Map<Operation, LatencyHistogram> LATENCIES = new EnumMap<>(Operation.class);
+    private static final Map<Counter, LongAdder> COUNTERS = new EnumMap<>(Counter.class);
+    private static volatile boolean enabled = Boolean.getBoolean("sudoku.metrics");
+
+    static {
+        for (Operation operation : Operation.values()) {
+            LATENCIES.put(operation, new LatencyHistogram());
+        }
+        for (Counter counter : Counter.values()) {
+            COUNTERS.put(counter, new LongAdder());
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Liga ou desliga a coleta de métricas.
+     *
+     * A coleta começa desligada, a menos que a aplicação seja iniciada com {@code -Dsudoku.metrics=true}.
+     * Desligada, cada ponto medido custa apenas a leitura de um campo e a consulta ao JDK Flight Recorder,
+     * ambas sem alocação depois da compilação: nenhum relógio é consultado e nada é escrito. Ligada, cada
+     * operação consulta o relógio duas vezes e faz alguns incrementos atômicos, o que é desprezível diante
+     * de uma validação ou resolução.
+     *
+     * Independentemente desta opção, os mesmos pontos emitem eventos {@code sudoku.Operation} do JDK
+     * Flight Recorder sempre que há uma gravação em andamento com o evento habilitado. A duração do
+     * evento é a da operação, de forma que a opção {@code threshold} da gravação pode ser usada para
+     * gravar apenas as operações lentas.
+     *
+     * @param on {@code true} para ligar a coleta.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Verifica se a coleta de métricas está ligada.
+     *
+     * @return {@code true} se as operações estão sendo medidas.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marca o início de uma operação medida.
+     *
+     * @return A medição em andamento, a ser passada para {@link #stop(Operation, OperationEvent)}, ou
+     *         {@code null} se nem a coleta nem o evento do Flight Recorder estiverem ligados.
+     */
+    public static OperationEvent start() {
+        OperationEvent event = new OperationEvent();
+        boolean recording = event.isEnabled();
+        if (!recording && !enabled) {
+            return null;
+        }
+        if (recording) {
+            event.begin();
+        }
+        if (enabled) {
+            event.measured = true;
+            event.startNanos = System.nanoTime();
+        }
+        return event;
+    }
+
+    /**
+     * Registra o fim de uma operação iniciada por {@link #start()}.
+     *
+     * A duração é somada ao histograma da operação se a coleta estava ligada no início, e o evento do
+     * Flight Recorder é gravado se estava habilitado e a duração passa do limite da gravação.
+     *
+     * @param operation A operação medida.
+     * @param measurement O valor retornado por {@link #start()}. Se for {@code null}, nada é registrado.
+     */
+    public static void stop(Operation operation, OperationEvent measurement) {
+        if (measurement == null) {
+            return;
+        }
+        if (measurement.measured) {
+            LATENCIES.get(operation).record(System.nanoTime() - measurement.startNanos);
+        }
+        measurement.end();
+        if (measurement.shouldCommit()) {
+            measurement.operation = operation.name();
+            measurement.commit();
+        }
+    }
+
+    /**
+     * Soma um valor a um contador, se a coleta estiver ligada.
+     *
+     * @param counter O contador.
+     * @param delta O valor a somar.
+     */
+    public static void add(Counter counter, long delta) {
+        if (enabled && delta != 0) {
+            COUNTERS.get(counter).add(delta);
+        }
+    }
+
+    /**
+     * Retorna o histograma de latência de uma operação.
+     *
+     * @param operation A operação.
+     * @return O histograma, compartilhado com o registro.
+     */
+    public static LatencyHistogram getLatency(Operation operation) {
+        return LATENCIES.get(operation);
+    }
+
+    /**
+     * Retorna o valor atual de um contador.
+     *
+     * @param counter O contador.
+     * @return A soma dos valores registrados.
+     */
+    public static long getCount(Counter counter) {
+        return COUNTERS.get(counter).sum();
+    }
+
+    /**
+     * Envia o estado atual de todas as métricas para um exportador.
+     *
+     * @param exporter O destino das métricas, por exemplo {@link TextMetricsExporter} ou {@link JsonMetricsExporter}.
+     *
+     * @throws IOException Se o exportador não conseguir escrever as métricas.
+     */
+    public static void export(MetricsExporter exporter) throws IOException {
+        Map<Counter, Long> counters = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, getCount(counter));
+        }
+        exporter.export(Collections.unmodifiableMap(LATENCIES), Collections.unmodifiableMap(counters));
+    }
+
+    /**
+     * Apaga todas as medidas e zera os contadores.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : LATENCIES.values()) {
+            histogram.reset();
+        }
+        for (LongAdder counter : COUNTERS.values()) {
+            counter.reset();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package sudoku;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ *
+ * @author caiofdev
+ */
+public interface MetricsExporter {
+    /**
+     * Publica o estado atual das métricas.
+     *
+     * Os histogramas são os mesmos usados pelo registro e continuam recebendo medidas durante a
+     * exportação; os valores lidos podem, portanto, incluir medidas feitas depois do início da chamada.
+     *
+     * @param latencies O histograma de latência de cada operação.
+     * @param counters O valor de cada contador.
+     *
+     * @throws IOException Se ocorrer um erro ao escrever as métricas.
+     */
+    void export(Map<Metrics.Operation, LatencyHistogram> latencies, Map<Metrics.Counter, Long> counters) throws IOException;
+}
@@ -0,0 +1,184 @@
+package sudoku;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class MoveJournal {
+    private static final int ROOT = 0;
+    private static final int NONE = 0;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /*
+     * O histórico é uma árvore de jogadas guardada em vetores paralelos, um nó por jogada. O nó 0 é a raiz
+     * (o tabuleiro antes de qualquer jogada). Cada nó guarda a jogada codificada em um int (célula nos
+     * bits 0-9, valor anterior nos bits 10-14 e valor novo nos bits 15-19), o nó pai, a profundidade e o
+     * filho seguido por "refazer". Com 10 bits para a célula e 5 para cada valor, a mesma codificação
+     * comporta tabuleiros de até 25x25. Nenhum nó é alterado ou removido depois de gravado: uma jogada feita
+     * após desfazer cria um novo ramo, e o ramo antigo continua disponível para os instantâneos que o
+     * referenciam. Por isso um instantâneo é apenas o número de um nó.
+     */
+    private int[] moves = new int[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] depths = new int[INITIAL_CAPACITY];
+    private int[] redoChildren = new int[INITIAL_CAPACITY];
+    private int[] path = new int[INITIAL_CAPACITY];
+    private int size = 1;
+    private int current = ROOT;
+
+    /**
+     * Registra uma jogada já aplicada ao tabuleiro, em tempo constante (amortizado).
+     *
+     * A jogada passa a ser a posição atual do histórico. Jogadas desfeitas anteriormente deixam de ser
+     * alcançáveis por {@link #redo(Board, IntConsumer)}, mas continuam gravadas e podem ser restauradas por
+     * um instantâneo obtido antes. Jogadas que não mudam o valor da célula não são registradas.
+     *
+     * @param board O tabuleiro no qual a jogada foi feita.
+     * @param row A linha da célula (de 0 a N-1, onde N é o lado do tabuleiro).
+     * @param col A coluna da célula (de 0 a N-1).
+     * @param oldValue O valor da célula antes da jogada (0 para vazia).
+     * @param newValue O valor da célula depois da jogada (0 para vazia).
+     */
+    public void record(Board board, int row, int col, int oldValue, int newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+        if (size == moves.length) {
+            grow();
+        }
+        int node = size++;
+        moves[node] = (row * board.getSize() + col) | oldValue << 10 | newValue << 15;
+        parents[node] = current;
+        depths[node] = depths[current] + 1;
+        redoChildren[node] = NONE;
+        redoChildren[current] = node;
+        current = node;
+    }
+
+    /**
+     * Desfaz a última jogada, em tempo constante, devolvendo a célula ao valor anterior.
+     *
+     * @param board O tabuleiro no qual a jogada foi feita.
+     * @param changed Recebe o índice ({@code linha * N + coluna}) da célula alterada.
+     * @return {@code true} se havia uma jogada a desfazer.
+     */
+    public boolean undo(Board board, IntConsumer changed) {
+        if (current == ROOT) {
+            return false;
+        }
+        stepUp(board, changed);
+        return true;
+    }
+
+    /**
+     * Refaz a última jogada desfeita, em tempo constante.
+     *
+     * @param board O tabuleiro no qual a jogada foi feita.
+     * @param changed Recebe o índice ({@code linha * N + coluna}) da célula alterada.
+     * @return {@code true} se havia uma jogada a refazer.
+     */
+    public boolean redo(Board board, IntConsumer changed) {
+        int next = redoChildren[current];
+        if (next == NONE) {
+            return false;
+        }
+        stepDown(next, board, changed);
+        return true;
+    }
+
+    /**
+     * Retorna um instantâneo da posição atual do histórico, em tempo constante e sem cópias.
+     *
+     * O instantâneo compartilha as jogadas com o histórico e continua válido após novas jogadas,
+     * desfazer e refazer, até {@link #clear()}.
+     *
+     * @return O identificador do instantâneo, usado em {@link #restore(Board, int, IntConsumer)}.
+     */
+    public int snapshot() {
+        return current;
+    }
+
+    /**
+     * Leva o tabuleiro ao estado de um instantâneo.
+     *
+     * São reaplicadas apenas as jogadas entre a posição atual e o instantâneo: as da posição atual até o
+     * ponto em comum são desfeitas e as do ponto em comum até o instantâneo são refeitas. O custo é
+     * proporcional a essa distância, e não ao tamanho do tabuleiro ou do histórico. Depois da restauração,
+     * {@link #redo(Board, IntConsumer)} segue o caminho percorrido.
+     *
+     * @param board O tabuleiro no qual as jogadas foram feitas.
+     * @param snapshot Um identificador obtido de {@link #snapshot()}.
+     * @param changed Recebe o índice de cada célula alterada.
+     *
+     * @throws IllegalArgumentException Se o instantâneo não existir neste histórico.
+     */
+    public void restore(Board board, int snapshot, IntConsumer changed) {
+        if (snapshot < 0 || snapshot >= size) {
+            throw new IllegalArgumentException("Instantâneo inexistente: " + snapshot);
+        }
+        int target = snapshot;
+        int count = 0;
+        while (depths[current] > depths[target]) {
+            stepUp(board, changed);
+        }
+        while (depths[target] > depths[current]) {
+            path[count++] = target;
+            target = parents[target];
+        }
+        while (current != target) {
+            stepUp(board, changed);
+            path[count++] = target;
+            target = parents[target];
+        }
+        while (count > 0) {
+            stepDown(path[--count], board, changed);
+        }
+    }
+
+    /**
+     * Retorna o número de jogadas entre o início do jogo e a posição atual.
+     *
+     * @return A quantidade de jogadas que podem ser desfeitas.
+     */
+    public int getDepth() {
+        return depths[current];
+    }
+
+    /**
+     * Apaga todo o histórico. Os instantâneos obtidos antes deixam de ser válidos.
+     */
+    public void clear() {
+        size = 1;
+        current = ROOT;
+        redoChildren[ROOT] = NONE;
+    }
+
+    private void stepUp(Board board, IntConsumer changed) {
+        int move = moves[current];
+        int cell = move & 0x3FF;
+        board.setValue(cell / board.getSize(), cell % board.getSize(), move >>> 10 & 0x1F);
+        changed.accept(cell);
+        redoChildren[parents[current]] = current;
+        current = parents[current];
+    }
+
+    private void stepDown(int node, Board board, IntConsumer changed) {
+        int move = moves[node];
+        int cell = move & 0x3FF;
+        board.setValue(cell / board.getSize(), cell % board.getSize(), move >>> 15 & 0x1F);
+        changed.accept(cell);
+        redoChildren[current] = node;
+        current = node;
+    }
+
+    private void grow() {
+        int capacity = moves.length * 2;
+        moves = Arrays.copyOf(moves, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        redoChildren = Arrays.copyOf(redoChildren, capacity);
+        path = new int[capacity];
+    }
+}
@@ -0,0 +1,31 @@
+package sudoku;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ *
+ * @author caiofdev
+ */
+@Name("sudoku.Operation")
+@Label("Operação do Sudoku")
+@Category("Sudoku")
+@Description("Uma validação, dica, geração ou resolução medida por Metrics. A duração do evento é a da operação.")
+@StackTrace(false)
+public final class OperationEvent extends Event {
+    @Label("Operação")
+    String operation;
+
+    /*
+     * O início da medição para o histograma de Metrics, quando a coleta está ligada. Os campos transient
+     * não são gravados pelo Flight Recorder.
+     */
+    transient boolean measured;
+    transient long startNanos;
+
+    OperationEvent() {
+    }
+}
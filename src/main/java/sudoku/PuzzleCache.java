@@ -0,0 +1,288 @@
+package sudoku;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class PuzzleCache implements AutoCloseable {
+    /**
+     * Quantidade de jogos mantidos prontos para cada combinação de tamanho, valores iniciais e nível.
+     */
+    public static final int DEFAULT_STOCK = 4;
+
+    /**
+     * Limite de jogos prontos somando todas as combinações.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Tempo, em minutos, após o qual uma combinação que não foi pedida deixa de ser mantida.
+     */
+    public static final long DEFAULT_TTL_MINUTES = 30;
+
+    private static PuzzleCache shared;
+
+    private final int stockPerKey;
+    private final int capacity;
+    private final long ttlNanos;
+    private final ExecutorService refillers;
+    private final Map<Integer, Stock> stocks = new ConcurrentHashMap<>();
+    private int total;
+
+    /**
+     * Construtor da classe PuzzleCache.
+     *
+     * @param stockPerKey Quantos jogos manter prontos para cada combinação pedida.
+     * @param capacity O limite de jogos prontos somando todas as combinações.
+     * @param ttlMinutes Após quantos minutos sem pedidos uma combinação é descartada.
+     * @param threads O número de threads que geram jogos em segundo plano.
+     *
+     * @throws IllegalArgumentException Se algum dos valores não for positivo.
+     */
+    public PuzzleCache(int stockPerKey, int capacity, long ttlMinutes, int threads) {
+        if (stockPerKey < 1 || capacity < 1 || ttlMinutes < 1 || threads < 1) {
+            throw new IllegalArgumentException("Os parâmetros do cache devem ser positivos.");
+        }
+        this.stockPerKey = stockPerKey;
+        this.capacity = capacity;
+        ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        refillers = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("puzzle-cache-", 0).daemon().factory());
+    }
+
+    /**
+     * Retorna o cache compartilhado pelo menu e pelos jogos, criado no primeiro uso com os valores
+     * padrão e uma thread de geração por processador, menos uma.
+     *
+     * @return O cache compartilhado.
+     */
+    public static synchronized PuzzleCache shared() {
+        if (shared == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            shared = new PuzzleCache(DEFAULT_STOCK, DEFAULT_CAPACITY, DEFAULT_TTL_MINUTES, threads);
+        }
+        return shared;
+    }
+
+    /**
+     * Retorna um jogo novo com solução única, retirado do estoque quando houver um pronto.
+     *
+     * Sem jogo pronto, o jogo é gerado na própria chamada, como em {@link Generator#generate(int, int, Difficulty, java.util.random.RandomGenerator)}.
+     * Em ambos os casos, se o estoque da combinação ficar abaixo da metade, a reposição é iniciada em
+     * segundo plano, de forma que o próximo pedido igual seja atendido sem esperar pela geração. Pedir
+     * uma combinação nova passa a mantê-la em estoque; combinações sem pedidos por mais tempo que o
+     * prazo configurado são descartadas e, quando o total passa do limite, é descartado o estoque da
+     * combinação pedida há mais tempo.
+     *
+     * Acertos e faltas são contados em {@link Metrics.Counter#PUZZLE_CACHE_HITS} e {@link Metrics.Counter#PUZZLE_CACHE_MISSES}.
+     *
+     * @param boxSize O lado das caixas do tabuleiro (3 para 9x9).
+     * @param clues A quantidade de valores iniciais.
+     * @param difficulty O nível de dificuldade.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     *
+     * @throws IllegalArgumentException Se {@code boxSize} ou {@code clues} estiverem fora do intervalo aceito pelo {@link Generator}.
+     */
+    public Board take(int boxSize, int clues, Difficulty difficulty) {
+        int key = keyOf(boxSize, clues, difficulty);
+        Stock stock = stocks.get(key);
+        int[] cells = null;
+        if (stock != null) {
+            synchronized (this) {
+                // O estoque lido fora da trava pode ter sido descartado desde então; nesse caso ele já está vazio.
+                if (stocks.get(key) == stock) {
+                    stock.lastUsed = System.nanoTime();
+                    cells = stock.puzzles.pollFirst();
+                    if (cells != null) {
+                        total--;
+                    }
+                }
+            }
+        }
+        if (cells == null) {
+            Metrics.add(Metrics.Counter.PUZZLE_CACHE_MISSES, 1);
+            cells = Generator.generateCells(boxSize, clues, difficulty, new Random());
+        } else {
+            Metrics.add(Metrics.Counter.PUZZLE_CACHE_HITS, 1);
+        }
+        refill(key, boxSize, clues, difficulty);
+        return Generator.toBoard(boxSize, cells);
+    }
+
+    /**
+     * Retorna um jogo novo com a quantidade padrão de valores iniciais do nível para o tamanho.
+     *
+     * @param boxSize O lado das caixas do tabuleiro.
+     * @param difficulty O nível de dificuldade.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     */
+    public Board take(int boxSize, Difficulty difficulty) {
+        return take(boxSize, difficulty.getDefaultClues(boxSize), difficulty);
+    }
+
+    /**
+     * Inicia a geração em segundo plano do estoque de uma combinação, sem retirar nenhum jogo.
+     *
+     * Usado na inicialização para que os primeiros jogos de uma sessão já estejam prontos.
+     *
+     * @param boxSize O lado das caixas do tabuleiro.
+     * @param clues A quantidade de valores iniciais.
+     * @param difficulty O nível de dificuldade.
+     */
+    public void prefetch(int boxSize, int clues, Difficulty difficulty) {
+        int key = keyOf(boxSize, clues, difficulty);
+        Stock stock = stocks.computeIfAbsent(key, k -> new Stock());
+        synchronized (this) {
+            stock.lastUsed = System.nanoTime();
+        }
+        refill(key, boxSize, clues, difficulty);
+    }
+
+    /**
+     * Inicia a geração em segundo plano dos jogos 9x9 com a quantidade padrão de valores iniciais de
+     * cada nível, as combinações mais pedidas no início de uma sessão.
+     */
+    public void prefetchDefaults() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            prefetch(3, difficulty.getDefaultClues(), difficulty);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de jogos prontos, somando todas as combinações.
+     *
+     * @return O número de jogos em estoque.
+     */
+    public synchronized int size() {
+        return total;
+    }
+
+    /**
+     * Interrompe a geração em segundo plano. Os jogos já prontos continuam disponíveis.
+     */
+    @Override
+    public void close() {
+        refillers.shutdownNow();
+    }
+
+    private void refill(int key, int boxSize, int clues, Difficulty difficulty) {
+        Stock stock = stocks.computeIfAbsent(key, k -> new Stock());
+        synchronized (this) {
+            if (stock.refilling || stock.puzzles.size() > stockPerKey / 2) {
+                return;
+            }
+            stock.refilling = true;
+        }
+        submit(() -> refillOne(key, stock, boxSize, clues, difficulty), stock);
+    }
+
+    /**
+     * Gera um jogo por tarefa e reenvia a tarefa enquanto o estoque não estiver cheio, para que várias
+     * combinações com falta sejam repostas de forma intercalada, e não uma de cada vez.
+     */
+    private void refillOne(int key, Stock stock, int boxSize, int clues, Difficulty difficulty) {
+        int[] cells;
+        try {
+            cells = Generator.generateCells(boxSize, clues, difficulty, new Random());
+        } catch (RuntimeException e) {
+            // Combinação inválida pedida por prefetch: não há o que manter em estoque.
+            synchronized (this) {
+                if (stocks.remove(key, stock)) {
+                    discard(stock);
+                }
+                stock.refilling = false;
+            }
+            return;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            evictExpired(now);
+            if (stocks.get(key) != stock) {
+                stock.refilling = false;
+                return;
+            }
+            stock.puzzles.addLast(cells);
+            total++;
+            evictOverCapacity(stock);
+            if (stock.puzzles.size() >= stockPerKey || stocks.get(key) != stock) {
+                stock.refilling = false;
+                return;
+            }
+        }
+        submit(() -> refillOne(key, stock, boxSize, clues, difficulty), stock);
+    }
+
+    private void submit(Runnable task, Stock stock) {
+        try {
+            refillers.execute(task);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                stock.refilling = false;
+            }
+        }
+    }
+
+    private void evictExpired(long now) {
+        stocks.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().lastUsed > ttlNanos) {
+                discard(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Descarta estoques inteiros, do menos recentemente pedido para o mais recente, até o total voltar
+     * ao limite. O estoque que acabou de receber um jogo só é descartado se for o único.
+     */
+    private void evictOverCapacity(Stock current) {
+        while (total > capacity) {
+            Map.Entry<Integer, Stock> oldest = null;
+            for (Map.Entry<Integer, Stock> entry : stocks.entrySet()) {
+                if (entry.getValue() != current && !entry.getValue().puzzles.isEmpty()
+                        && (oldest == null || entry.getValue().lastUsed - oldest.getValue().lastUsed < 0)) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                current.puzzles.pollFirst();
+                total--;
+            } else {
+                discard(oldest.getValue());
+                stocks.remove(oldest.getKey());
+            }
+        }
+    }
+
+    /**
+     * Esvazia um estoque que está sendo removido do mapa, descontando os seus jogos do total. Um
+     * {@code take} que já tinha obtido o estoque antes da remoção não encontra nenhum jogo nele, e o
+     * total nunca é descontado duas vezes pelo mesmo jogo.
+     */
+    private void discard(Stock stock) {
+        total -= stock.puzzles.size();
+        stock.puzzles.clear();
+    }
+
+    private static int keyOf(int boxSize, int clues, Difficulty difficulty) {
+        return clues << 8 | boxSize << 4 | difficulty.ordinal();
+    }
+
+    /**
+     * Os jogos prontos de uma combinação, em formato plano, com o instante do último pedido. Os campos
+     * são protegidos pela trava do cache.
+     */
+    private static final class Stock {
+        final ArrayDeque<int[]> puzzles = new ArrayDeque<>();
+        long lastUsed = System.nanoTime();
+        boolean refilling;
+    }
+}
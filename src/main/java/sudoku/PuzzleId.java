@@ -0,0 +1,232 @@
+package sudoku;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class PuzzleId {
+    /**
+     * Quantos jogos regenerados são mantidos em memória para atender de imediato pedidos repetidos do mesmo código.
+     */
+    public static final int MEMO_CAPACITY = 1024;
+
+    /*
+     * Versão do mapeamento de códigos para jogos. Ela entra na semente, de forma que uma mudança no
+     * Generator que altere os jogos produzidos (outra ordem de sorteios, outro critério de remoção)
+     * deve vir acompanhada de uma nova versão; verify() passa então a acusar os códigos antigos em vez
+     * de devolver silenciosamente outro jogo.
+     */
+    private static final long FORMAT_VERSION = 1;
+
+    private static final Map<Key, int[]> MEMO = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, int[]> eldest) {
+            return size() > MEMO_CAPACITY;
+        }
+    };
+
+    private PuzzleId() {
+    }
+
+    /**
+     * Sorteia um novo código de jogo.
+     *
+     * @return Um código de 64 bits.
+     */
+    public static long random() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Gera o jogo 9x9 correspondente a um código, com a quantidade padrão de valores iniciais do nível.
+     *
+     * @param id O código do jogo.
+     * @param difficulty O nível de dificuldade.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     *
+     * @see #generate(long, int, Difficulty)
+     */
+    public static Board generate(long id, Difficulty difficulty) {
+        return generate(id, 3, difficulty);
+    }
+
+    /**
+     * Gera o jogo correspondente a um código, com a quantidade padrão de valores iniciais do nível para o tamanho.
+     *
+     * O código, o tamanho e o nível determinam o jogo por completo: o {@link Generator} é executado com
+     * um gerador de números aleatórios próprio (SplitMix64), cuja sequência depende apenas da semente
+     * e não da versão do Java, da máquina ou do número de threads, e a geração não consulta o relógio
+     * nem nenhuma outra fonte de aleatoriedade. Assim, o mesmo código produz o mesmo jogo em qualquer
+     * máquina, e basta guardar ou transmitir os 8 bytes do código em vez do tabuleiro.
+     *
+     * A geração custa o mesmo que a de um jogo sorteado. Os últimos {@link #MEMO_CAPACITY} jogos
+     * gerados ficam em memória, de forma que pedidos repetidos do mesmo código, como o jogo do dia
+     * aberto por muitos jogadores, são atendidos sem gerar o jogo de novo.
+     *
+     * @param id O código do jogo. Qualquer valor de 64 bits é válido.
+     * @param boxSize O lado das caixas do tabuleiro (3 para 9x9).
+     * @param difficulty O nível de dificuldade.
+     * @return Um novo tabuleiro com os valores iniciais marcados como gerados automaticamente.
+     *
+     * @throws IllegalArgumentException Se {@code boxSize} estiver fora do intervalo aceito pelo {@link Generator}.
+     */
+    public static Board generate(long id, int boxSize, Difficulty difficulty) {
+        Key key = new Key(id, boxSize, difficulty);
+        int[] cells;
+        synchronized (MEMO) {
+            cells = MEMO.get(key);
+        }
+        if (cells == null) {
+            cells = generateCells(id, boxSize, difficulty);
+            synchronized (MEMO) {
+                MEMO.put(key, cells);
+            }
+        }
+        return Generator.toBoard(boxSize, cells);
+    }
+
+    /**
+     * Verifica se um tabuleiro é o jogo correspondente a um código.
+     *
+     * O jogo é sempre gerado de novo, sem usar os jogos mantidos em memória, e comparado célula a
+     * célula com os valores iniciais do tabuleiro (as células marcadas como geradas automaticamente);
+     * as jogadas feitas nas demais células são ignoradas. Serve para conferir que códigos guardados
+     * continuam produzindo os jogos esperados, por exemplo depois de uma atualização da aplicação ou
+     * ao receber de outra máquina um código acompanhado do tabuleiro.
+     *
+     * @param id O código do jogo.
+     * @param difficulty O nível de dificuldade.
+     * @param board O tabuleiro a ser conferido.
+     * @return {@code true} se os valores iniciais do tabuleiro forem exatamente os do jogo do código.
+     */
+    public static boolean verify(long id, Difficulty difficulty, Board board) {
+        int n = board.getSize();
+        int[] cells = generateCells(id, board.getBoxSize(), difficulty);
+        for (int i = 0; i < cells.length; i++) {
+            int row = i / n;
+            int col = i % n;
+            int given = board.isAutoGeneratedValue(row, col) ? board.getValue(row, col) : 0;
+            if (given != cells[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Escreve um código como 16 dígitos hexadecimais, a forma mostrada aos jogadores.
+     *
+     * @param id O código do jogo.
+     * @return O código em hexadecimal, com zeros à esquerda.
+     */
+    public static String format(long id) {
+        String hex = Long.toHexString(id);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    /**
+     * Lê um código escrito por {@link #format(long)}.
+     *
+     * @param text Até 16 dígitos hexadecimais, em maiúsculas ou minúsculas.
+     * @return O código do jogo.
+     *
+     * @throws IllegalArgumentException Se o texto não for um código válido.
+     */
+    public static long parse(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 16) {
+            throw new IllegalArgumentException("Código de jogo inválido: " + text);
+        }
+        try {
+            return Long.parseUnsignedLong(trimmed, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Código de jogo inválido: " + text);
+        }
+    }
+
+    private static int[] generateCells(long id, int boxSize, Difficulty difficulty) {
+        // O nível entra pela posição na enumeração: novos níveis devem ser acrescentados ao final.
+        long salt = FORMAT_VERSION << 16 | (long) boxSize << 8 | difficulty.ordinal();
+        RandomGenerator random = new SplitMix64(id ^ SplitMix64.mix(salt));
+        return Generator.generateCells(boxSize, difficulty.getDefaultClues(boxSize), difficulty, random);
+    }
+
+    /**
+     * O SplitMix64 de Steele, Lea e Flood: um estado de 64 bits somado de uma constante fixa a cada
+     * número, seguido de uma função de mistura. Os métodos usados pelo {@link Generator} são todos
+     * implementados aqui, em vez de herdar as implementações padrão de {@link RandomGenerator}, que
+     * podem mudar entre versões do Java.
+     */
+    private static final class SplitMix64 implements RandomGenerator {
+        private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+        private long state;
+
+        SplitMix64(long seed) {
+            state = seed;
+        }
+
+        static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        @Override
+        public long nextLong() {
+            state += GOLDEN_GAMMA;
+            return mix(state);
+        }
+
+        @Override
+        public int nextInt() {
+            return (int) (nextLong() >>> 32);
+        }
+
+        /**
+         * Sorteia um valor de 0 a {@code bound - 1} sem viés, descartando os sorteios do último intervalo incompleto.
+         */
+        @Override
+        public int nextInt(int bound) {
+            if (bound <= 0) {
+                throw new IllegalArgumentException("O limite deve ser positivo: " + bound);
+            }
+            int bits;
+            int value;
+            do {
+                bits = nextInt() >>> 1;
+                value = bits % bound;
+            } while (bits - value + (bound - 1) < 0);
+            return value;
+        }
+    }
+
+    /**
+     * A chave dos jogos mantidos em memória.
+     */
+    private static final class Key {
+        final long id;
+        final int boxSize;
+        final Difficulty difficulty;
+
+        Key(long id, int boxSize, Difficulty difficulty) {
+            this.id = id;
+            this.boxSize = boxSize;
+            this.difficulty = difficulty;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.id == id && key.boxSize == boxSize && key.difficulty == difficulty;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id) * 31 + boxSize * 7 + difficulty.ordinal();
+        }
+    }
+}
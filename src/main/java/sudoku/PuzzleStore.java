@@ -0,0 +1,201 @@
+package sudoku;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class PuzzleStore implements AutoCloseable {
+    static final int MAGIC = 0x53444B50;
+    static final int VERSION = 1;
+    static final int MAX_CLUES = 81;
+    static final int BUCKETS = Difficulty.values().length * (MAX_CLUES + 1);
+    static final int BUCKET_TABLE_OFFSET = 24;
+    static final int DATA_OFFSET = 4096;
+    static final int RECORD_SIZE = 56;
+    static final int DIFFICULTY_OFFSET = BoardCodec.RECORD_SIZE;
+    static final int CLUES_OFFSET = BoardCodec.RECORD_SIZE + 1;
+    static final int RECORDS_PER_SEGMENT = (1 << 30) / RECORD_SIZE;
+    static final int INDEX_ENTRIES_PER_SEGMENT = 1 << 28;
+    static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final FileChannel channel;
+    private final long recordCount;
+    private final int[] bucketStart = new int[BUCKETS];
+    private final int[] bucketCount = new int[BUCKETS];
+    private final MappedByteBuffer[] records;
+    private final MappedByteBuffer[] index;
+
+    /**
+     * Abre um arquivo de jogos gravado por {@link PuzzleStoreWriter}.
+     *
+     * O arquivo é formado por um cabeçalho de 4096 bytes, uma sequência de registros de tamanho fixo e
+     * um índice. Cada registro ocupa 56 bytes: o tabuleiro no formato binário de {@link BoardCodec},
+     * seguido do nível de dificuldade e da quantidade de valores iniciais. O índice lista os números dos
+     * registros agrupados por dificuldade e quantidade de valores iniciais, e o cabeçalho guarda, para
+     * cada grupo, onde ele começa no índice e quantos registros possui.
+     *
+     * Apenas o cabeçalho é lido na abertura. Registros e índice são mapeados em memória em segmentos de
+     * até 1 GB, de forma que arquivos com vários gigabytes podem ser abertos sem carregá-los no heap;
+     * o sistema operacional traz para a memória apenas as páginas efetivamente acessadas.
+     *
+     * Uma instância pode ser lida por várias threads ao mesmo tempo.
+     *
+     * @param path O caminho do arquivo.
+     * @return O arquivo aberto para leitura.
+     *
+     * @throws IOException Se o arquivo não puder ser lido ou não estiver no formato esperado.
+     */
+    public static PuzzleStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new PuzzleStore(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private PuzzleStore(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(DATA_OFFSET).order(ByteOrder.BIG_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        header.flip();
+        if (header.remaining() < DATA_OFFSET || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("O arquivo não é um arquivo de jogos válido.");
+        }
+        recordCount = header.getLong(8);
+        long indexOffset = header.getLong(16);
+        for (int b = 0; b < BUCKETS; b++) {
+            bucketStart[b] = header.getInt(BUCKET_TABLE_OFFSET + b * 8);
+            bucketCount[b] = header.getInt(BUCKET_TABLE_OFFSET + b * 8 + 4);
+        }
+
+        records = new MappedByteBuffer[(int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT)];
+        for (int s = 0; s < records.length; s++) {
+            long first = (long) s * RECORDS_PER_SEGMENT;
+            long size = Math.min(RECORDS_PER_SEGMENT, recordCount - first) * RECORD_SIZE;
+            records[s] = channel.map(FileChannel.MapMode.READ_ONLY, DATA_OFFSET + first * RECORD_SIZE, size);
+        }
+        index = new MappedByteBuffer[(int) ((recordCount + INDEX_ENTRIES_PER_SEGMENT - 1) / INDEX_ENTRIES_PER_SEGMENT)];
+        for (int s = 0; s < index.length; s++) {
+            long first = (long) s * INDEX_ENTRIES_PER_SEGMENT;
+            long size = Math.min(INDEX_ENTRIES_PER_SEGMENT, recordCount - first) * 4;
+            index[s] = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset + first * 4, size);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de jogos do arquivo.
+     *
+     * @return O número de registros.
+     */
+    public long size() {
+        return recordCount;
+    }
+
+    /**
+     * Lê o jogo de número {@code n}, em tempo constante, diretamente da região mapeada.
+     *
+     * @param n O número do registro, de 0 a {@code size() - 1}.
+     * @return O tabuleiro do jogo, com os valores iniciais marcados como gerados automaticamente.
+     *
+     * @throws IndexOutOfBoundsException Se {@code n} estiver fora do intervalo.
+     */
+    public Board get(long n) {
+        checkRecord(n);
+        return BoardCodec.read(records[(int) (n / RECORDS_PER_SEGMENT)], recordOffset(n));
+    }
+
+    /**
+     * Retorna o nível de dificuldade do jogo de número {@code n}.
+     *
+     * @param n O número do registro, de 0 a {@code size() - 1}.
+     * @return O nível de dificuldade gravado.
+     */
+    public Difficulty getDifficulty(long n) {
+        checkRecord(n);
+        return DIFFICULTIES[records[(int) (n / RECORDS_PER_SEGMENT)].get(recordOffset(n) + DIFFICULTY_OFFSET)];
+    }
+
+    /**
+     * Retorna a quantidade de valores iniciais do jogo de número {@code n}.
+     *
+     * @param n O número do registro, de 0 a {@code size() - 1}.
+     * @return A quantidade de valores iniciais gravada.
+     */
+    public int getClues(long n) {
+        checkRecord(n);
+        return records[(int) (n / RECORDS_PER_SEGMENT)].get(recordOffset(n) + CLUES_OFFSET);
+    }
+
+    /**
+     * Retorna quantos jogos do arquivo têm a dificuldade e a quantidade de valores iniciais informadas.
+     *
+     * @param difficulty O nível de dificuldade.
+     * @param clues A quantidade de valores iniciais (de 0 a 81).
+     * @return O número de jogos do grupo.
+     */
+    public int count(Difficulty difficulty, int clues) {
+        return bucketCount[bucket(difficulty, clues)];
+    }
+
+    /**
+     * Lê o {@code k}-ésimo jogo com a dificuldade e a quantidade de valores iniciais informadas.
+     *
+     * A posição do registro é obtida do índice em tempo constante, sem percorrer os demais registros.
+     *
+     * @param difficulty O nível de dificuldade.
+     * @param clues A quantidade de valores iniciais (de 0 a 81).
+     * @param k A posição dentro do grupo, de 0 a {@code count(difficulty, clues) - 1}.
+     * @return O tabuleiro do jogo.
+     *
+     * @throws IndexOutOfBoundsException Se {@code k} estiver fora do intervalo.
+     */
+    public Board get(Difficulty difficulty, int clues, int k) {
+        int b = bucket(difficulty, clues);
+        if (k < 0 || k >= bucketCount[b]) {
+            throw new IndexOutOfBoundsException(k);
+        }
+        long entry = (long) bucketStart[b] + k;
+        int n = index[(int) (entry / INDEX_ENTRIES_PER_SEGMENT)].getInt((int) (entry % INDEX_ENTRIES_PER_SEGMENT) * 4);
+        return get(n);
+    }
+
+    /**
+     * Fecha o arquivo. Os tabuleiros já lidos continuam válidos, pois são cópias independentes.
+     *
+     * @throws IOException Se ocorrer um erro ao fechar o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static int bucket(Difficulty difficulty, int clues) {
+        if (clues < 0 || clues > MAX_CLUES) {
+            throw new IllegalArgumentException("A quantidade de valores iniciais deve estar entre 0 e 81: " + clues);
+        }
+        return difficulty.ordinal() * (MAX_CLUES + 1) + clues;
+    }
+
+    private void checkRecord(long n) {
+        if (n < 0 || n >= recordCount) {
+            throw new IndexOutOfBoundsException("Registro inexistente: " + n);
+        }
+    }
+
+    private static int recordOffset(long n) {
+        return (int) (n % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+}
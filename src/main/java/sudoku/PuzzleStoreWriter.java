@@ -0,0 +1,172 @@
+package sudoku;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class PuzzleStoreWriter implements AutoCloseable {
+    private static final int BATCH_RECORDS = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer batch = ByteBuffer.allocate(BATCH_RECORDS * PuzzleStore.RECORD_SIZE);
+    private long recordCount;
+    private boolean closed;
+
+    /**
+     * Cria um novo arquivo de jogos, substituindo o existente, no formato lido por {@link PuzzleStore}.
+     *
+     * Os jogos são acrescentados em sequência, na ordem em que chegam, e gravados em lotes. O índice por
+     * dificuldade e quantidade de valores iniciais é montado somente em {@link #close()}, com duas
+     * leituras sequenciais dos registros já gravados; assim, a memória usada pelo escritor não depende
+     * do número de jogos.
+     *
+     * @param path O caminho do arquivo.
+     * @return O escritor pronto para receber jogos.
+     *
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public static PuzzleStoreWriter create(Path path) throws IOException {
+        return new PuzzleStoreWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    private PuzzleStoreWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Acrescenta um jogo ao arquivo.
+     *
+     * A quantidade de valores iniciais gravada é o número de células marcadas como geradas automaticamente.
+     *
+     * @param board O tabuleiro do jogo.
+     * @param difficulty O nível de dificuldade do jogo.
+     * @return O número do registro gravado, usado em {@link PuzzleStore#get(long)}.
+     *
+     * @throws IllegalArgumentException Se o tabuleiro não for 9x9.
+     * @throws IOException Se ocorrer um erro de gravação.
+     */
+    public long add(Board board, Difficulty difficulty) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("O arquivo já foi fechado.");
+        }
+        if (recordCount == Integer.MAX_VALUE) {
+            throw new IllegalStateException("O arquivo atingiu o número máximo de jogos.");
+        }
+        if (board.getSize() != 9) {
+            throw new IllegalArgumentException("O arquivo só comporta tabuleiros 9x9, mas o tabuleiro é " + board.getSize() + "x" + board.getSize());
+        }
+        int clues = 0;
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (board.isAutoGeneratedValue(row, col)) {
+                    clues++;
+                }
+            }
+        }
+        int offset = batch.position();
+        BoardCodec.write(board, batch);
+        batch.put((byte) difficulty.ordinal());
+        batch.put((byte) clues);
+        batch.position(offset + PuzzleStore.RECORD_SIZE);
+        long number = recordCount++;
+        if (!batch.hasRemaining()) {
+            flush();
+        }
+        return number;
+    }
+
+    /**
+     * Conclui o arquivo: grava os jogos pendentes, monta o índice e escreve o cabeçalho.
+     *
+     * @throws IOException Se ocorrer um erro de gravação.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            writeIndex();
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        batch.flip();
+        long position = PuzzleStore.DATA_OFFSET + (recordCount - batch.remaining() / PuzzleStore.RECORD_SIZE) * PuzzleStore.RECORD_SIZE;
+        while (batch.hasRemaining()) {
+            position += channel.write(batch, position);
+        }
+        batch.clear();
+    }
+
+    private void writeIndex() throws IOException {
+        int[] counts = new int[PuzzleStore.BUCKETS];
+        for (long n = 0; n < recordCount; n += PuzzleStore.RECORDS_PER_SEGMENT) {
+            MappedByteBuffer segment = mapRecords(n);
+            for (int offset = 0; offset < segment.capacity(); offset += PuzzleStore.RECORD_SIZE) {
+                counts[bucketAt(segment, offset)]++;
+            }
+        }
+        int[] starts = new int[PuzzleStore.BUCKETS];
+        for (int b = 1; b < PuzzleStore.BUCKETS; b++) {
+            starts[b] = starts[b - 1] + counts[b - 1];
+        }
+
+        long indexOffset = PuzzleStore.DATA_OFFSET + recordCount * PuzzleStore.RECORD_SIZE;
+        MappedByteBuffer[] index = new MappedByteBuffer[(int) ((recordCount + PuzzleStore.INDEX_ENTRIES_PER_SEGMENT - 1) / PuzzleStore.INDEX_ENTRIES_PER_SEGMENT)];
+        for (int s = 0; s < index.length; s++) {
+            long first = (long) s * PuzzleStore.INDEX_ENTRIES_PER_SEGMENT;
+            long size = Math.min(PuzzleStore.INDEX_ENTRIES_PER_SEGMENT, recordCount - first) * 4;
+            index[s] = channel.map(FileChannel.MapMode.READ_WRITE, indexOffset + first * 4, size);
+        }
+        int[] next = starts.clone();
+        for (long n = 0; n < recordCount; n += PuzzleStore.RECORDS_PER_SEGMENT) {
+            MappedByteBuffer segment = mapRecords(n);
+            for (int offset = 0; offset < segment.capacity(); offset += PuzzleStore.RECORD_SIZE) {
+                long entry = next[bucketAt(segment, offset)]++;
+                index[(int) (entry / PuzzleStore.INDEX_ENTRIES_PER_SEGMENT)]
+                        .putInt((int) (entry % PuzzleStore.INDEX_ENTRIES_PER_SEGMENT) * 4, (int) (n + offset / PuzzleStore.RECORD_SIZE));
+            }
+        }
+        for (MappedByteBuffer segment : index) {
+            segment.force();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(PuzzleStore.DATA_OFFSET);
+        header.putInt(PuzzleStore.MAGIC);
+        header.putInt(PuzzleStore.VERSION);
+        header.putLong(recordCount);
+        header.putLong(indexOffset);
+        for (int b = 0; b < PuzzleStore.BUCKETS; b++) {
+            header.putInt(starts[b]);
+            header.putInt(counts[b]);
+        }
+        header.clear();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private MappedByteBuffer mapRecords(long first) throws IOException {
+        long size = Math.min(PuzzleStore.RECORDS_PER_SEGMENT, recordCount - first) * PuzzleStore.RECORD_SIZE;
+        return channel.map(FileChannel.MapMode.READ_ONLY, PuzzleStore.DATA_OFFSET + first * PuzzleStore.RECORD_SIZE, size);
+    }
+
+    private static int bucketAt(ByteBuffer records, int offset) {
+        Difficulty difficulty = PuzzleStore.DIFFICULTIES[records.get(offset + PuzzleStore.DIFFICULTY_OFFSET)];
+        return PuzzleStore.bucket(difficulty, records.get(offset + PuzzleStore.CLUES_OFFSET));
+    }
+}
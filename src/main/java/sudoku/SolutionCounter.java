@@ -0,0 +1,272 @@
+package sudoku;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class SolutionCounter {
+    private static final ThreadLocal<Solver[]> SOLVERS = ThreadLocal.withInitial(() -> new Solver[Board.MAX_BOX_SIZE + 1]);
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Construtor da classe SolutionCounter.
+     *
+     * Usa o {@link ForkJoinPool#commonPool()} e divide a busca em níveis suficientes para gerar cerca
+     * de quatro subárvores por thread do pool, mesmo quando cada célula escolhida tem apenas dois valores.
+     */
+    public SolutionCounter() {
+        this(ForkJoinPool.commonPool(), defaultSplitDepth(ForkJoinPool.commonPool().getParallelism()));
+    }
+
+    /**
+     * Construtor da classe SolutionCounter com um pool e uma profundidade de divisão escolhidos.
+     *
+     * @param pool O pool em que as subárvores são percorridas.
+     * @param splitDepth Em quantas células, no máximo, a busca é ramificada antes de entregar cada
+     *                   subárvore a um {@link Solver}. Com 0, toda a busca é feita em uma única tarefa.
+     *
+     * @throws IllegalArgumentException Se {@code splitDepth} for negativo.
+     */
+    public SolutionCounter(ForkJoinPool pool, int splitDepth) {
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException("A profundidade de divisão não pode ser negativa: " + splitDepth);
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Conta as soluções de um tabuleiro usando todas as threads do pool, interrompendo a busca ao atingir um limite.
+     *
+     * A busca começa como a do {@link Solver}: as células com um único valor possível são preenchidas
+     * e, em seguida, é escolhida a célula vazia com menos valores possíveis. Cada um desses valores dá
+     * origem a uma subárvore, que é dividida da mesma forma até {@code splitDepth} células terem sido
+     * ramificadas; então cada subárvore é contada por um {@link Solver} da thread que a executa. As
+     * subárvores são tarefas de um {@link ForkJoinPool}, de modo que as threads que terminam antes
+     * roubam as subárvores restantes das demais.
+     *
+     * O total é compartilhado entre as tarefas: assim que ele atinge {@code limit}, todas as buscas em
+     * andamento param na próxima solução e as subárvores ainda não iniciadas são descartadas. Um limite
+     * de 2 basta para saber se o tabuleiro tem solução única.
+     *
+     * @param board O tabuleiro cujas soluções serão contadas. Não é modificado.
+     * @param limit O número máximo de soluções a procurar. Deve ser maior que zero.
+     * @return O número de soluções encontradas, no máximo {@code limit}; 0 se os valores preenchidos já se contradizem.
+     *
+     * @throws IllegalArgumentException Se {@code limit} não for positivo.
+     */
+    public long countSolutions(Board board, long limit) {
+        return forEachSolution(board, limit, null);
+    }
+
+    /**
+     * Verifica, em paralelo, se um tabuleiro possui exatamente uma solução.
+     *
+     * @param board O tabuleiro a ser verificado.
+     * @return {@code true} se houver uma única solução, {@code false} se não houver nenhuma ou houver várias.
+     */
+    public boolean hasUniqueSolution(Board board) {
+        return countSolutions(board, 2) == 1;
+    }
+
+    /**
+     * Entrega cada solução de um tabuleiro a uma ação assim que é encontrada, até esgotá-las ou atingir um limite.
+     *
+     * Permite percorrer todas as soluções de um tabuleiro com poucos valores preenchidos sem guardá-las:
+     * cada solução é um novo {@link Board}, sem células marcadas como geradas automaticamente, entregue
+     * pela thread do pool que a encontrou. A ação pode, portanto, ser chamada por várias threads ao mesmo
+     * tempo e deve ser segura para isso. A divisão da busca é a mesma de {@link #countSolutions(Board, long)},
+     * e a ordem das soluções não é definida. Nenhuma solução é entregue mais de uma vez, e no máximo
+     * {@code limit} soluções são entregues. Uma exceção não verificada lançada pela ação interrompe a
+     * enumeração e é relançada por este método, como o {@link ForkJoinPool} faz com as exceções das
+     * tarefas (quando lançada em outra thread, como causa de uma exceção do mesmo tipo).
+     *
+     * @param board O tabuleiro cujas soluções serão percorridas. Não é modificado.
+     * @param limit O número máximo de soluções a entregar. Deve ser maior que zero.
+     * @param action A ação aplicada a cada solução.
+     * @return O número de soluções entregues.
+     *
+     * @throws IllegalArgumentException Se {@code limit} não for positivo.
+     */
+    public long forEachSolution(Board board, long limit, Consumer<? super Board> action) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("O limite deve ser positivo: " + limit);
+        }
+        OperationEvent measurement = Metrics.start();
+        try {
+            int n = board.getSize();
+            int[] cells = new int[n * n];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = board.getValue(i / n, i % n);
+            }
+            Search search = new Search(board.getBoxSize(), limit, action);
+            pool.invoke(new Branch(search, cells, 0));
+            return Math.min(search.found.get(), limit);
+        } finally {
+            Metrics.stop(Metrics.Operation.SOLVE, measurement);
+        }
+    }
+
+    private static int defaultSplitDepth(int parallelism) {
+        int depth = 2;
+        while ((1 << depth) < 4 * parallelism && depth < 16) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * O estado compartilhado por todas as subárvores de uma contagem.
+     */
+    private static final class Search {
+        final int boxSize;
+        final int n;
+        final Topology topology;
+        final long limit;
+        final Consumer<? super Board> action;
+        final AtomicLong found = new AtomicLong();
+
+        Search(int boxSize, long limit, Consumer<? super Board> action) {
+            this.boxSize = boxSize;
+            n = boxSize * boxSize;
+            topology = Topology.of(boxSize);
+            this.limit = limit;
+            this.action = action;
+        }
+
+        boolean done() {
+            return found.get() >= limit;
+        }
+
+        /**
+         * Percorre uma subárvore com o {@link Solver} da thread atual, reservando no total compartilhado
+         * cada solução antes de entregá-la, para que o limite nunca seja ultrapassado.
+         */
+        void leaf(int[] cells) {
+            Solver[] solvers = SOLVERS.get();
+            if (solvers[boxSize] == null) {
+                solvers[boxSize] = new Solver(boxSize);
+            }
+            try {
+                visit(solvers[boxSize], cells);
+            } catch (RuntimeException | Error e) {
+                // A busca interrompida pela exceção não desfez as coberturas: o Solver não pode ser reutilizado.
+                solvers[boxSize] = null;
+                throw e;
+            }
+        }
+
+        private void visit(Solver solver, int[] cells) {
+            solver.forEachSolution(cells, Integer.MAX_VALUE, solution -> {
+                long ticket = found.getAndIncrement();
+                if (ticket >= limit) {
+                    return false;
+                }
+                if (action != null) {
+                    Board board = new Board(boxSize);
+                    for (int i = 0; i < solution.length; i++) {
+                        board.setValue(i / n, i % n, solution[i]);
+                    }
+                    action.accept(board);
+                }
+                return ticket + 1 < limit;
+            });
+        }
+    }
+
+    /**
+     * Uma subárvore da busca: a grade com os valores escolhidos até aqui e quantas células já foram ramificadas.
+     */
+    private final class Branch extends RecursiveAction {
+        private final Search search;
+        private final int[] cells;
+        private final int depth;
+
+        Branch(Search search, int[] cells, int depth) {
+            this.search = search;
+            this.cells = cells;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.done()) {
+                return;
+            }
+            if (depth >= splitDepth) {
+                search.leaf(cells);
+                return;
+            }
+            int n = search.n;
+            Topology topology = search.topology;
+            int[] rows = new int[n];
+            int[] cols = new int[n];
+            int[] boxes = new int[n];
+            int best;
+            int bestCandidates;
+            while (true) {
+                // Recalcula as máscaras a cada valor preenchido; a grade tem no máximo 625 células.
+                Arrays.fill(rows, 0);
+                Arrays.fill(cols, 0);
+                Arrays.fill(boxes, 0);
+                for (int i = 0; i < cells.length; i++) {
+                    if (cells[i] != 0) {
+                        int row = topology.rowOf[i];
+                        int col = topology.colOf[i];
+                        int b = topology.boxOf[i];
+                        int bit = 1 << (cells[i] - 1);
+                        if (((rows[row] | cols[col] | boxes[b]) & bit) != 0) {
+                            return;
+                        }
+                        rows[row] |= bit;
+                        cols[col] |= bit;
+                        boxes[b] |= bit;
+                    }
+                }
+                best = -1;
+                bestCandidates = 0;
+                int bestCount = Integer.MAX_VALUE;
+                int full = (1 << n) - 1;
+                for (int i = 0; i < cells.length && bestCount > 1; i++) {
+                    if (cells[i] == 0) {
+                        int candidates = full & ~(rows[topology.rowOf[i]] | cols[topology.colOf[i]] | boxes[topology.boxOf[i]]);
+                        int count = Integer.bitCount(candidates);
+                        if (count < bestCount) {
+                            best = i;
+                            bestCandidates = candidates;
+                            bestCount = count;
+                        }
+                    }
+                }
+                if (best < 0) {
+                    // Grade completa e sem conflitos: é uma solução, entregue pelo Solver como qualquer outra.
+                    search.leaf(cells);
+                    return;
+                }
+                if (bestCount == 0) {
+                    return;
+                }
+                if (bestCount > 1) {
+                    break;
+                }
+                cells[best] = Integer.numberOfTrailingZeros(bestCandidates) + 1;
+            }
+            List<Branch> children = new ArrayList<>(Integer.bitCount(bestCandidates));
+            for (int candidates = bestCandidates; candidates != 0; candidates &= candidates - 1) {
+                int[] child = cells.clone();
+                child[best] = Integer.numberOfTrailingZeros(candidates) + 1;
+                children.add(new Branch(search, child, depth + 1));
+            }
+            invokeAll(children);
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package sudoku;
+import java.util.function.Predicate;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class Solver {
+    private static final int ROOT = 0;
+
+    private final int boxSize;
+    private final int n;
+    private final int cells;
+    private final int columns;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] rowOf;
+    private final int[] size;
+    private final int[] rowStart;
+
+    private final int[] chosenColumns;
+    private final int[] chosenRows;
+    private final int[] givenRows;
+    private final boolean[] usedColumns;
+    private final int[] grid;
+    private final int[] solution;
+
+    /**
+     * Construtor da classe Solver.
+     *
+     * Este construtor monta, uma única vez, a matriz de cobertura exata do Sudoku 9x9 na forma de
+     * "dancing links" (Algoritmo X de Knuth). A matriz possui 324 colunas de restrição, divididas em
+     * quatro grupos de 81: cada célula deve ter um valor, cada linha deve conter cada dígito, cada coluna
+     * deve conter cada dígito e cada caixa 3x3 deve conter cada dígito. Cada uma das 729 linhas da matriz
+     * representa a escolha de um dígito para uma célula e cobre exatamente quatro colunas.
+     *
+     * Os nós são armazenados em vetores de inteiros paralelos (esquerda, direita, cima, baixo, coluna),
+     * de forma que a busca apenas reencadeia índices e não aloca memória. Toda a estrutura é restaurada
+     * ao final de cada busca, o que permite reutilizar a mesma instância para resolver muitos tabuleiros.
+     *
+     * Uma instância não é segura para uso concorrente; cada thread deve possuir o seu próprio {@code Solver}.
+     */
+    public Solver() {
+        this(3);
+    }
+
+    /**
+     * Construtor da classe Solver para tabuleiros de outros tamanhos.
+     *
+     * A matriz é montada da mesma forma que no 9x9, com {@code 4 * N²} colunas e {@code N³} linhas para
+     * um tabuleiro NxN (N = {@code boxSize²}): 1024 colunas e 4096 linhas no 16x16, e 2500 colunas e
+     * 15625 linhas no 25x25. A busca continua escolhendo a coluna com menos opções, o que mantém o
+     * número de tentativas pequeno mesmo nesses tamanhos.
+     *
+     * @param boxSize O lado de cada caixa, de {@link Board#MIN_BOX_SIZE} a {@link Board#MAX_BOX_SIZE}.
+     *
+     * @throws IllegalArgumentException Se {@code boxSize} estiver fora do intervalo aceito.
+     */
+    public Solver(int boxSize) {
+        if (boxSize < Board.MIN_BOX_SIZE || boxSize > Board.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("O lado da caixa deve estar entre " + Board.MIN_BOX_SIZE + " e " + Board.MAX_BOX_SIZE + ": " + boxSize);
+        }
+        this.boxSize = boxSize;
+        n = boxSize * boxSize;
+        cells = n * n;
+        columns = 4 * cells;
+        int rows = n * cells;
+        int nodes = 1 + columns + 4 * rows;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        rowOf = new int[nodes];
+        size = new int[columns + 1];
+        rowStart = new int[rows];
+        chosenColumns = new int[cells];
+        chosenRows = new int[cells];
+        givenRows = new int[cells];
+        usedColumns = new boolean[columns + 1];
+        grid = new int[cells];
+        solution = new int[cells];
+
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? columns : c - 1;
+            right[c] = c == columns ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+
+        Topology topology = Topology.of(boxSize);
+        int node = columns + 1;
+        for (int r = 0; r < rows; r++) {
+            int cell = r / n;
+            int digit = r % n;
+            int row = topology.rowOf[cell];
+            int col = topology.colOf[cell];
+            int box = topology.boxOf[cell];
+            int first = node;
+            rowStart[r] = first;
+            appendNode(node++, r, 1 + cell);
+            appendNode(node++, r, 1 + cells + row * n + digit);
+            appendNode(node++, r, 1 + 2 * cells + col * n + digit);
+            appendNode(node++, r, 1 + 3 * cells + box * n + digit);
+            for (int i = 0; i < 4; i++) {
+                left[first + i] = first + (i + 3) % 4;
+                right[first + i] = first + (i + 1) % 4;
+            }
+        }
+    }
+
+    /**
+     * Resolve um tabuleiro de Sudoku.
+     *
+     * Os valores preenchidos no tabuleiro recebido são tratados como fixos e o restante é completado
+     * pela busca de cobertura exata. O tabuleiro recebido não é modificado.
+     *
+     * @param board O tabuleiro a ser resolvido.
+     * @return Um novo {@code Board} com a primeira solução encontrada, ou {@code null} se o tabuleiro
+     *         não possuir solução (inclusive quando os valores preenchidos já se contradizem).
+     *
+     * @throws IllegalArgumentException Se o tabuleiro não tiver o tamanho deste {@code Solver}.
+     */
+    public Board solve(Board board) {
+        Board solved = new Board(boxSize);
+        return solve(board, solved) ? solved : null;
+    }
+
+    /**
+     * Resolve um tabuleiro de Sudoku, escrevendo a solução em um tabuleiro informado em vez de criar um novo.
+     *
+     * Permite resolver muitos jogos reaproveitando o mesmo tabuleiro de destino, ou escrever a solução
+     * diretamente em uma visão de {@link BoardArena}, sem alocar memória por jogo. As células do destino
+     * recebem os valores da solução; as marcas de valores gerados automaticamente não são alteradas.
+     *
+     * @param board O tabuleiro a ser resolvido. Não é modificado.
+     * @param solution O tabuleiro que recebe a solução. Pode ser o próprio {@code board}.
+     * @return {@code true} se uma solução foi encontrada; caso contrário, {@code solution} não é modificado.
+     *
+     * @throws IllegalArgumentException Se algum dos tabuleiros não tiver o tamanho deste {@code Solver}.
+     */
+    public boolean solve(Board board, Board solution) {
+        if (solution.getBoxSize() != boxSize) {
+            throw new IllegalArgumentException("O tabuleiro de destino deve ser " + n + "x" + n + ".");
+        }
+        OperationEvent measurement = Metrics.start();
+        readGrid(board);
+        int found = search(grid, 1, this.solution, Long.MAX_VALUE, null);
+        Metrics.stop(Metrics.Operation.SOLVE, measurement);
+        if (found == 0) {
+            return false;
+        }
+        for (int i = 0; i < cells; i++) {
+            solution.setValue(i / n, i % n, this.solution[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Conta as soluções de um tabuleiro de Sudoku, interrompendo a busca ao atingir um limite.
+     *
+     * Um limite de 2 é suficiente para saber se o tabuleiro tem solução única, o que é o uso mais comum.
+     *
+     * @param board O tabuleiro cujas soluções serão contadas. Não é modificado.
+     * @param limit O número máximo de soluções a procurar. Deve ser maior que zero.
+     * @return O número de soluções encontradas, no máximo {@code limit}.
+     *
+     * @throws IllegalArgumentException Se {@code limit} não for positivo ou o tabuleiro não tiver o tamanho deste {@code Solver}.
+     */
+    public int countSolutions(Board board, int limit) {
+        OperationEvent measurement = Metrics.start();
+        try {
+            readGrid(board);
+            return countSolutions(grid, limit);
+        } finally {
+            Metrics.stop(Metrics.Operation.SOLVE, measurement);
+        }
+    }
+
+    /**
+     * Verifica se um tabuleiro possui exatamente uma solução.
+     *
+     * @param board O tabuleiro a ser verificado.
+     * @return {@code true} se houver uma única solução, {@code false} se não houver nenhuma ou houver várias.
+     */
+    public boolean hasUniqueSolution(Board board) {
+        return countSolutions(board, 2) == 1;
+    }
+
+    /**
+     * Conta as soluções de uma grade em formato plano (N² valores, linha a linha, 0 para vazio).
+     *
+     * @param cells A grade a ser analisada. Não é modificada.
+     * @param limit O número máximo de soluções a procurar.
+     * @return O número de soluções encontradas, no máximo {@code limit}.
+     */
+    int countSolutions(int[] cells, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("O limite deve ser positivo: " + limit);
+        }
+        return search(cells, limit, null, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Percorre as soluções de uma grade em formato plano, entregando cada uma a um visitante assim que é encontrada.
+     * 
+     * O vetor entregue ao visitante é reutilizado entre as soluções e deve ser copiado se precisar ser 
+     * guardado. A busca termina ao esgotar as soluções, ao atingir o limite ou quando o visitante 
+     * retorna {@code false}, o que permite a quem chama interromper a enumeração a qualquer momento.
+     * 
+     * @param cells A grade a ser analisada. Não é modificada.
+     * @param limit O número máximo de soluções a entregar.
+     * @param visitor Recebe cada solução (N² valores, linha a linha) e retorna {@code true} para continuar.
+     * @return O número de soluções entregues.
+     */
+    int forEachSolution(int[] cells, int limit, Predicate<int[]> visitor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("O limite deve ser positivo: " + limit);
+        }
+        return search(cells, limit, null, Long.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Conta as soluções de uma grade em formato plano, desistindo depois de um número máximo de tentativas.
+     *
+     * Cada tentativa é a escolha de uma linha da matriz durante a busca. O limite permite usar o
+     * {@code Solver} em laços como a geração de jogos, em que uma verificação excepcionalmente demorada
+     * (comum nos tabuleiros 25x25 com poucos valores) pode ser descartada sem prejudicar o resultado.
+     *
+     * @param cells A grade a ser analisada. Não é modificada.
+     * @param limit O número máximo de soluções a procurar.
+     * @param maxSteps O número máximo de tentativas.
+     * @return O número de soluções encontradas, no máximo {@code limit}, ou {@code -1} se a busca foi interrompida.
+     */
+    int countSolutions(int[] cells, int limit, long maxSteps) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("O limite deve ser positivo: " + limit);
+        }
+        return search(cells, limit, null, maxSteps, null);
+    }
+
+    /**
+     * Resolve uma grade em formato plano, escrevendo a primeira solução no vetor de saída.
+     *
+     * @param cells A grade a ser resolvida (N² valores, 0 para vazio). Não é modificada.
+     * @param out O vetor de N² posições que receberá a solução.
+     * @return {@code true} se uma solução foi encontrada, {@code false} caso contrário.
+     */
+    boolean solve(int[] cells, int[] out) {
+        return search(cells, 1, out, Long.MAX_VALUE, null) > 0;
+    }
+
+    /**
+     * Executa o Algoritmo X sobre a matriz, partindo dos valores fixos da grade.
+     *
+     * A recursão é substituída por uma pilha explícita em vetores pré-alocados, e a coluna escolhida
+     * em cada nível é a de menor tamanho (heurística S de Knuth). Ao final, todas as coberturas são
+     * desfeitas na ordem inversa, deixando a matriz pronta para a próxima chamada. Com um visitante, 
+     * cada solução é escrita no vetor {@code solution} e entregue a ele, que pode interromper a busca.
+     *
+     * @return O número de soluções encontradas, limitado a {@code limit}, ou {@code -1} se o número de
+     *         tentativas passou de {@code maxSteps}.
+     */
+    private int search(int[] cells, int limit, int[] out, long maxSteps, Predicate<int[]> visitor) {
+        int givens = 0;
+        boolean consistent = true;
+        for (int i = 0; i < this.cells && consistent; i++) {
+            int value = cells[i];
+            if (value == 0) {
+                continue;
+            }
+            int first = rowStart[i * n + value - 1];
+            int j = first;
+            do {
+                if (usedColumns[column[j]]) {
+                    consistent = false;
+                }
+                j = right[j];
+            } while (j != first);
+            if (consistent) {
+                selectRow(first);
+                givenRows[givens++] = first;
+            }
+        }
+
+        int count = 0;
+        int level = 0;
+        long steps = 0;
+        if (consistent) {
+            boolean forward = true;
+            while (true) {
+                if (forward) {
+                    if (right[ROOT] == ROOT) {
+                        if (count == 0 && out != null) {
+                            writeSolution(cells, level, out);
+                        }
+                        boolean more = true;
+                        if (visitor != null) {
+                            writeSolution(cells, level, solution);
+                            more = visitor.test(solution);
+                        }
+                        if (++count >= limit || !more) {
+                            break;
+                        }
+                        forward = false;
+                        continue;
+                    }
+                    int c = chooseColumn();
+                    if (size[c] == 0) {
+                        forward = false;
+                        continue;
+                    }
+                    cover(c);
+                    chosenColumns[level] = c;
+                    chosenRows[level] = down[c];
+                    coverRow(down[c]);
+                    level++;
+                    if (++steps > maxSteps) {
+                        count = -1;
+                        break;
+                    }
+                } else {
+                    if (level == 0) {
+                        break;
+                    }
+                    level--;
+                    int r = chosenRows[level];
+                    uncoverRow(r);
+                    r = down[r];
+                    if (r == chosenColumns[level]) {
+                        uncover(r);
+                        continue;
+                    }
+                    chosenRows[level] = r;
+                    coverRow(r);
+                    level++;
+                    forward = true;
+                    if (++steps > maxSteps) {
+                        count = -1;
+                        break;
+                    }
+                }
+            }
+        }
+
+        while (level > 0) {
+            level--;
+            uncoverRow(chosenRows[level]);
+            uncover(chosenColumns[level]);
+        }
+        while (givens > 0) {
+            unselectRow(givenRows[--givens]);
+        }
+        return count;
+    }
+
+    private void writeSolution(int[] cells, int level, int[] out) {
+        System.arraycopy(cells, 0, out, 0, this.cells);
+        for (int i = 0; i < level; i++) {
+            int r = rowOf[chosenRows[i]];
+            out[r / n] = r % n + 1;
+        }
+    }
+
+    private int chooseColumn() {
+        int best = right[ROOT];
+        int bestSize = size[best];
+        for (int c = right[best]; c != ROOT && bestSize > 1; c = right[c]) {
+            if (size[c] < bestSize) {
+                best = c;
+                bestSize = size[c];
+            }
+        }
+        return best;
+    }
+
+    private void selectRow(int first) {
+        cover(column[first]);
+        coverRow(first);
+    }
+
+    private void unselectRow(int first) {
+        uncoverRow(first);
+        uncover(column[first]);
+    }
+
+    private void coverRow(int node) {
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    private void uncoverRow(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+    }
+
+    private void cover(int c) {
+        usedColumns[c] = true;
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+        usedColumns[c] = false;
+    }
+
+    private void appendNode(int node, int r, int c) {
+        column[node] = c;
+        rowOf[node] = r;
+        up[node] = up[c];
+        down[node] = c;
+        down[up[c]] = node;
+        up[c] = node;
+        size[c]++;
+    }
+
+    private void readGrid(Board board) {
+        if (board.getBoxSize() != boxSize) {
+            throw new IllegalArgumentException("O tabuleiro tem caixas de lado " + board.getBoxSize() + ", mas o Solver foi montado para " + boxSize);
+        }
+        for (int i = 0; i < cells; i++) {
+            grid[i] = board.getValue(i / n, i % n);
+        }
+    }
+
+    /**
+     * Retorna o lado das caixas dos tabuleiros resolvidos por esta instância.
+     *
+     * @return O lado da caixa.
+     */
+    public int getBoxSize() {
+        return boxSize;
+    }
+}
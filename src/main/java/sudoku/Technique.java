@@ -0,0 +1,69 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+public enum Technique {
+    NAKED_SINGLE("Candidato único", 10, Difficulty.EASY),
+    HIDDEN_SINGLE("Posição única", 12, Difficulty.EASY),
+    POINTING("Interseção caixa-linha", 26, Difficulty.MEDIUM),
+    BOX_LINE("Interseção linha-caixa", 28, Difficulty.MEDIUM),
+    NAKED_PAIR("Par exposto", 30, Difficulty.MEDIUM),
+    HIDDEN_PAIR("Par oculto", 34, Difficulty.MEDIUM),
+    NAKED_TRIPLE("Trio exposto", 36, Difficulty.MEDIUM),
+    HIDDEN_TRIPLE("Trio oculto", 40, Difficulty.MEDIUM),
+    X_WING("X-Wing", 50, Difficulty.HARD),
+    SWORDFISH("Swordfish", 60, Difficulty.HARD),
+    XY_WING("XY-Wing", 65, Difficulty.EXPERT),
+    SIMPLE_COLORING("Coloração simples", 70, Difficulty.EXPERT);
+
+    private final String displayName;
+    private final int cost;
+    private final Difficulty difficulty;
+
+    /**
+     * Construtor da técnica de dedução.
+     *
+     * As técnicas são declaradas em ordem crescente de custo, que é a ordem em que o {@link Grader} as
+     * tenta: a cada passo, a primeira técnica que produz algum avanço é aplicada e a busca recomeça do
+     * início da lista. O custo é o peso da técnica na pontuação de dificuldade, e o nível indica a partir
+     * de qual dificuldade a técnica costuma ser exigida.
+     *
+     * @param displayName O nome da técnica exibido ao jogador.
+     * @param cost O peso da técnica na pontuação.
+     * @param difficulty O nível de dificuldade associado à técnica.
+     */
+    Technique(String displayName, int cost, Difficulty difficulty) {
+        this.displayName = displayName;
+        this.cost = cost;
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Retorna o nome da técnica exibido ao jogador.
+     *
+     * @return O nome da técnica.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Retorna o peso da técnica na pontuação de dificuldade.
+     *
+     * @return O custo da técnica.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Retorna o nível de dificuldade associado à técnica.
+     *
+     * @return O nível de dificuldade.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+}
@@ -0,0 +1,47 @@
+package sudoku;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class TextMetricsExporter implements MetricsExporter {
+    private final PrintStream out;
+
+    /**
+     * Construtor da classe TextMetricsExporter.
+     *
+     * @param out O destino do relatório, por exemplo {@code System.err}.
+     */
+    public TextMetricsExporter(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Imprime uma tabela legível com a quantidade, a média, os percentis 50, 99 e 99,9 e o máximo de cada
+     * operação, em microssegundos, seguida dos contadores. Operações sem medidas são omitidas.
+     */
+    @Override
+    public void export(Map<Metrics.Operation, LatencyHistogram> latencies, Map<Metrics.Counter, Long> counters) {
+        out.printf("%-10s %10s %12s %12s %12s %12s %12s%n", "operacao", "qtd", "media(us)", "p50(us)", "p99(us)", "p99.9(us)", "max(us)");
+        for (Map.Entry<Metrics.Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+            out.printf("%-10s %10d %12.1f %12.1f %12.1f %12.1f %12.1f%n", entry.getKey().name().toLowerCase(Locale.ROOT), count,
+                    histogram.getMean() / 1e3,
+                    histogram.getValueAtPercentile(50) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3,
+                    histogram.getMax() / 1e3);
+        }
+        for (Map.Entry<Metrics.Counter, Long> entry : counters.entrySet()) {
+            out.printf("%-30s %d%n", entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue());
+        }
+        out.flush();
+    }
+}
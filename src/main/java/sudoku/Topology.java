@@ -0,0 +1,124 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+final class Topology {
+    private static final Topology[] BY_BOX_SIZE = new Topology[Board.MAX_BOX_SIZE + 1];
+
+    static {
+        for (int boxSize = Board.MIN_BOX_SIZE; boxSize <= Board.MAX_BOX_SIZE; boxSize++) {
+            BY_BOX_SIZE[boxSize] = new Topology(boxSize);
+        }
+    }
+
+    /**
+     * A geometria do tabuleiro 9x9.
+     */
+    static final Topology NINE = BY_BOX_SIZE[3];
+
+    /*
+     * Todas as tabelas usam o índice de célula linha * N + coluna e a numeração de unidades do resto do
+     * projeto: de 0 a N - 1 as linhas, de N a 2N - 1 as colunas e de 2N a 3N - 1 as caixas, da esquerda
+     * para a direita e de cima para baixo. As tabelas são calculadas uma única vez por tamanho e nunca
+     * são modificadas, de forma que podem ser lidas por qualquer thread.
+     */
+    final int boxSize;
+    final int size;
+    final int cells;
+    final int peerCount;
+
+    /**
+     * A linha, a coluna e a caixa de cada célula.
+     */
+    final int[] rowOf;
+    final int[] colOf;
+    final int[] boxOf;
+
+    /**
+     * As células de cada unidade em um único vetor: a {@code i}-ésima célula da unidade {@code u} está
+     * na posição {@code u * N + i}. As células de uma caixa seguem a ordem de leitura, linha a linha.
+     */
+    final int[] units;
+
+    /**
+     * As três unidades de cada célula (linha, coluna e caixa), na posição {@code célula * 3}.
+     */
+    final int[] cellUnits;
+
+    /**
+     * Os vizinhos de cada célula (as demais células da sua linha, coluna e caixa, sem repetição e em
+     * ordem crescente), na posição {@code célula * peerCount}: 20 no 9x9 e 39 no 16x16.
+     */
+    final int[] peers;
+
+    /**
+     * As mesmas células de {@link #units} e {@link #peers}, um vetor por unidade e por célula, para os
+     * laços que percorrem uma unidade ou os vizinhos de uma célula com {@code for} aprimorado.
+     */
+    final int[][] unitCells;
+    final int[][] peerCells;
+
+    private Topology(int boxSize) {
+        this.boxSize = boxSize;
+        size = boxSize * boxSize;
+        cells = size * size;
+        peerCount = 3 * size - 2 * boxSize - 1;
+        rowOf = new int[cells];
+        colOf = new int[cells];
+        boxOf = new int[cells];
+        units = new int[3 * size * size];
+        cellUnits = new int[3 * cells];
+        peers = new int[cells * peerCount];
+        unitCells = new int[3 * size][];
+        peerCells = new int[cells][];
+
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = (row / boxSize) * boxSize + col / boxSize;
+            cellUnits[3 * cell] = row;
+            cellUnits[3 * cell + 1] = size + col;
+            cellUnits[3 * cell + 2] = 2 * size + boxOf[cell];
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                units[i * size + j] = i * size + j;
+                units[(size + i) * size + j] = j * size + i;
+                units[(2 * size + i) * size + j] = ((i / boxSize) * boxSize + j / boxSize) * size + (i % boxSize) * boxSize + j % boxSize;
+            }
+        }
+        for (int u = 0; u < 3 * size; u++) {
+            unitCells[u] = new int[size];
+            System.arraycopy(units, u * size, unitCells[u], 0, size);
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            int k = cell * peerCount;
+            for (int other = 0; other < cells; other++) {
+                if (other != cell && (rowOf[other] == rowOf[cell] || colOf[other] == colOf[cell] || boxOf[other] == boxOf[cell])) {
+                    peers[k++] = other;
+                }
+            }
+            peerCells[cell] = new int[peerCount];
+            System.arraycopy(peers, cell * peerCount, peerCells[cell], 0, peerCount);
+        }
+    }
+
+    /**
+     * Retorna a geometria dos tabuleiros com caixas de lado {@code boxSize}.
+     *
+     * @param boxSize O lado das caixas, de {@link Board#MIN_BOX_SIZE} a {@link Board#MAX_BOX_SIZE}.
+     * @return As tabelas do tamanho, compartilhadas por todos os tabuleiros desse tamanho.
+     *
+     * @throws IllegalArgumentException Se {@code boxSize} estiver fora do intervalo aceito.
+     */
+    static Topology of(int boxSize) {
+        if (boxSize < Board.MIN_BOX_SIZE || boxSize > Board.MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("O lado da caixa deve estar entre " + Board.MIN_BOX_SIZE + " e " + Board.MAX_BOX_SIZE + ": " + boxSize);
+        }
+        return BY_BOX_SIZE[boxSize];
+    }
+}
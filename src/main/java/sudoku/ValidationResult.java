@@ -0,0 +1,157 @@
+package sudoku;
+
+/**
+ *
+ * @author caiofdev
+ */
+public class ValidationResult {
+    private boolean[] conflictingCells = new boolean[81];
+    private int[] cells = new int[81];
+    private int[] unitDigits = new int[27];
+    private int size = 9;
+    private int cellCount;
+    private int unitCount;
+    private int units;
+
+    /**
+     * Construtor da classe ValidationResult.
+     *
+     * Um resultado descreve os conflitos encontrados por {@link Validator#validate(Board, ValidationResult)}:
+     * as células envolvidas, as unidades (linhas, colunas e caixas) com repetições e os dígitos repetidos
+     * em cada unidade. Todos os vetores são alocados aqui, uma única vez, e o mesmo objeto pode ser
+     * reutilizado em sucessivas validações sem gerar lixo.
+     *
+     * As unidades são numeradas de 0 a 26: de 0 a 8 as linhas, de 9 a 17 as colunas e de 18 a 26 as caixas.
+     * Em tabuleiros NxN, a numeração segue o mesmo padrão, de 0 a {@code 3N - 1}, e os vetores são
+     * realocados apenas quando o tamanho do tabuleiro validado muda.
+     */
+    public ValidationResult() {
+    }
+
+    /**
+     * Indica se a última validação não encontrou nenhum conflito.
+     *
+     * @return {@code true} se o tabuleiro validado não possui valores repetidos.
+     */
+    public boolean isValid() {
+        return unitCount == 0;
+    }
+
+    /**
+     * Retorna o lado do tabuleiro da última validação (9 no tabuleiro 9x9).
+     *
+     * @return O número de linhas do tabuleiro validado.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Retorna a quantidade de células envolvidas em algum conflito.
+     *
+     * @return O número de células em conflito.
+     */
+    public int getConflictingCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Retorna uma das células em conflito, na ordem em que foram encontradas.
+     *
+     * @param index A posição na lista, de 0 a {@code getConflictingCellCount() - 1}.
+     * @return O índice da célula no formato {@code linha * 9 + coluna} (ou {@code linha * N + coluna} em tabuleiros NxN).
+     */
+    public int getConflictingCell(int index) {
+        if (index >= cellCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return cells[index];
+    }
+
+    /**
+     * Verifica se uma célula está envolvida em algum conflito.
+     *
+     * @param row A linha da célula (de 0 a N-1, onde N é {@link #getSize()}).
+     * @param col A coluna da célula (de 0 a N-1).
+     * @return {@code true} se o valor da célula se repete em sua linha, coluna ou caixa.
+     */
+    public boolean isConflictingCell(int row, int col) {
+        return conflictingCells[row * size + col];
+    }
+
+    /**
+     * Retorna as unidades com conflito como uma máscara de 27 bits, onde o bit {@code u} indica a unidade {@code u}.
+     *
+     * Em tabuleiros maiores que 9x9, a máscara não comporta todas as unidades; use {@link #isConflictingUnit(int)}.
+     *
+     * @return A máscara das unidades com valores repetidos.
+     */
+    public int getConflictingUnits() {
+        return units;
+    }
+
+    /**
+     * Verifica se uma unidade tem valores repetidos.
+     *
+     * @param unit O índice da unidade (de 0 a 26, ou de 0 a {@code 3N - 1} em tabuleiros NxN).
+     * @return {@code true} se a unidade tem conflito.
+     */
+    public boolean isConflictingUnit(int unit) {
+        return unitDigits[unit] != 0;
+    }
+
+    /**
+     * Retorna os dígitos repetidos em uma unidade como uma máscara de 9 bits.
+     *
+     * @param unit O índice da unidade (de 0 a 26).
+     * @return A máscara dos dígitos repetidos, onde o bit {@code v - 1} indica o valor {@code v}; {@code 0} se não houver conflito.
+     */
+    public int getConflictDigits(int unit) {
+        return unitDigits[unit];
+    }
+
+    /**
+     * Limpa o resultado, deixando-o pronto para uma nova validação.
+     */
+    public void clear() {
+        for (int i = 0; i < cellCount; i++) {
+            conflictingCells[cells[i]] = false;
+        }
+        if (unitCount != 0) {
+            for (int u = 0; u < unitDigits.length; u++) {
+                unitDigits[u] = 0;
+            }
+        }
+        cellCount = 0;
+        unitCount = 0;
+        units = 0;
+    }
+
+    /**
+     * Limpa o resultado e o prepara para um tabuleiro de lado {@code size}.
+     */
+    void reset(int size) {
+        clear();
+        if (size != this.size) {
+            this.size = size;
+            conflictingCells = new boolean[size * size];
+            cells = new int[size * size];
+            unitDigits = new int[3 * size];
+        }
+    }
+
+    void addUnit(int unit, int digits) {
+        if (unit < 32) {
+            units |= 1 << unit;
+        }
+        unitDigits[unit] = digits;
+        unitCount++;
+    }
+
+    void addCell(int cell) {
+        if (!conflictingCells[cell]) {
+            conflictingCells[cell] = true;
+            cells[cellCount++] = cell;
+        }
+    }
+}
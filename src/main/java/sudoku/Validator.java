@@ -1,5 +1,7 @@
 package sudoku;
+import java.io.PrintStream;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -7,156 +9,272 @@ import java.util.Set;
  * @author caiofdev
  */
 public class Validator {
+    private static final boolean VECTORIZED = !"false".equals(System.getProperty("sudoku.vector"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorValidator.isSupported();
+
+    // Vetor de trabalho da versão vetorizada, um por thread, para que a validação em formato plano não aloque memória.
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[VectorValidator.SCRATCH_SIZE]);
+
     /**
      * Valida o estado atual do tabuleiro para garantir que ele está correto.
      * 
      * Este método verifica se as linhas, colunas e caixas (subgrades 3x3) do tabuleiro são válidas 
-     * em relação às regras de um jogo, como Sudoku, por exemplo. Ele percorre o tabuleiro e, 
-     * para cada índice de 0 a 8, chama métodos auxiliares (presumivelmente {@code isValidRow}, 
-     * {@code isValidColumn}, e {@code isValidBox}) para verificar se as respectivas linhas, 
-     * colunas e caixas do tabuleiro estão corretas. 
-     * 
-     * Se o tabuleiro for válido (sem erros), o método imprime uma mensagem indicando que o 
-     * jogo está correto até o momento. Caso contrário, imprime uma mensagem indicando que 
-     * o jogo contém erros.
+     * em relação às regras do Sudoku, ou seja, se nenhum valor se repete em uma mesma unidade. 
+     * Como o tabuleiro mantém um contador de conflitos atualizado a cada jogada, a resposta é obtida 
+     * em tempo constante, sem percorrer as unidades. Para saber onde estão os conflitos, use 
+     * {@link #validate(Board, ValidationResult)}.
      *
      * @param board O objeto {@code Board} que representa o tabuleiro a ser validado.
+     * @return {@code true} se não houver valores repetidos, {@code false} caso contrário.
      */
-        public static boolean validate(Board board) {
-            boolean valid = true;
-            for (int i = 0; i < 9; i++) {
-                if (!isValidRow(board, i) || !isValidColumn(board, i) || !isValidBox(board, i)) {
-                    valid = false;
-                }
+    public static boolean validate(Board board) {
+        return !board.hasConflicts();
+    }
+
+    /**
+     * Valida o tabuleiro e registra todos os conflitos encontrados.
+     * 
+     * Cada uma das 27 unidades (9 linhas, 9 colunas e 9 caixas, ou 3N unidades em um tabuleiro NxN) é percorrida com uma máscara de bits 
+     * dos valores já vistos; um valor cujo bit já estava ligado é marcado como repetido. Em seguida, as 
+     * células da unidade que contêm um valor repetido são registradas no resultado. O resultado é limpo 
+     * no início da chamada e pode ser reutilizado, de forma que a validação não aloca memória nem faz 
+     * operações de entrada e saída. A apresentação fica a cargo de {@link #printReport(ValidationResult, PrintStream)}.
+     *
+     * @param board O objeto {@code Board} que representa o tabuleiro a ser validado.
+     * @param result O objeto que receberá os conflitos encontrados.
+     * @return {@code true} se não houver valores repetidos, {@code false} caso contrário.
+     */
+    public static boolean validate(Board board, ValidationResult result) {
+        OperationEvent measurement = Metrics.start();
+        int size = board.getSize();
+        int[] units = board.getTopology().units;
+        result.reset(size);
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int duplicates = findDuplicates(board, units, unit * size, size);
+            if (duplicates == 0) {
+                continue;
             }
-            if (valid) {
-                System.out.println("O jogo está correto até o momento.");
-            } else {
-                System.out.println("O jogo contém erros.");
+            result.addUnit(unit, duplicates);
+            for (int k = unit * size; k < (unit + 1) * size; k++) {
+                int value = board.getValue(units[k]);
+                if (value != 0 && (duplicates & (1 << (value - 1))) != 0) {
+                    result.addCell(units[k]);
+                }
             }
-            return valid;
         }
-    
+        Metrics.stop(Metrics.Operation.VALIDATE, measurement);
+        return result.isValid();
+    }
+
     /**
-     * Verifica se uma linha do tabuleiro é válida.
-     * 
-     * Este método valida se todos os valores em uma linha específica do tabuleiro são únicos. 
-     * Ele percorre todas as colunas da linha indicada pelo parâmetro {@code row} e utiliza um 
-     * conjunto (`Set`) para garantir que não existam valores duplicados. Caso o valor na célula 
-     * seja diferente de zero e já exista no conjunto, o método imprime uma mensagem de erro 
-     * indicando a linha com a duplicata e retorna {@code false}. Se a linha for válida (sem duplicatas), 
-     * o método retorna {@code true}.
-     *
-     * @param board O objeto {@code Board} que representa o tabuleiro a ser validado.
-     * @param row O índice da linha a ser verificada. Deve ser um valor entre 0 e 8 (inclusive).
-     * @return {@code true} se a linha for válida (sem valores duplicados), {@code false} caso contrário.
+     * Procura valores repetidos em um tabuleiro 9x9 guardado em formato plano, um byte por célula.
+     * 
+     * O formato é o das células de {@link Board} e de {@link BoardArena}: 81 bytes, linha a linha, com o 
+     * valor nos 5 bits menos significativos (0 para vazia) e os demais bits ignorados. Em vez de 
+     * procurar repetições valor a valor, cada unidade é verificada com uma soma e um OU das máscaras 
+     * de bit dos seus valores, que só diferem quando há um valor repetido.
+     * 
+     * Quando a JVM é iniciada com {@code --add-modules jdk.incubator.vector} e o processador tem 
+     * vetores de ao menos 256 bits, as 27 unidades são verificadas ao mesmo tempo com a Vector API, 
+     * em algumas operações vetoriais; caso contrário, ou com {@code -Dsudoku.vector=false}, é usada 
+     * uma versão escalar equivalente. Os resultados das duas são idênticos.
+     * 
+     * @param cells O vetor com o tabuleiro.
+     * @param offset A posição da primeira célula.
+     * @return A máscara das unidades com valores repetidos: o bit {@code u} indica a unidade {@code u}, 
+     *         de 0 a 8 as linhas, de 9 a 17 as colunas e de 18 a 26 as caixas. Zero se o tabuleiro for válido.
+     * 
+     * @throws IndexOutOfBoundsException Se o vetor não tiver 81 bytes a partir de {@code offset}.
+     */
+    public static int findConflictingUnits(byte[] cells, int offset) {
+        return findConflictingUnits(cells, offset, VECTORIZED ? SCRATCH.get() : null);
+    }
+
+    /**
+     * Valida em sequência tabuleiros 9x9 guardados lado a lado, 81 bytes cada, no formato de 
+     * {@link #findConflictingUnits(byte[], int)}.
+     * 
+     * É o caminho para validar grandes lotes de jogos, como grades completas vindas de um arquivo ou 
+     * de uma {@link BoardArena}: os tabuleiros são lidos diretamente do vetor, sem criar objetos nem 
+     * alocar memória.
+     * 
+     * @param cells O vetor com os tabuleiros.
+     * @param offset A posição da primeira célula do primeiro tabuleiro.
+     * @param count A quantidade de tabuleiros.
+     * @param units Recebe, na posição {@code i}, a máscara de unidades com conflito do tabuleiro 
+     *              {@code i}; pode ser {@code null} quando apenas a contagem interessa.
+     * @return A quantidade de tabuleiros com algum valor repetido.
+     * 
+     * @throws IndexOutOfBoundsException Se o vetor não tiver {@code 81 * count} bytes a partir de {@code offset}.
+     */
+    public static int validateBatch(byte[] cells, int offset, int count, int[] units) {
+        return validateBatch(cells, offset, count, units, 0);
+    }
+
+    /**
+     * Valida em sequência registros consecutivos de uma {@link BoardArena} de tabuleiros 9x9.
+     * 
+     * @param arena A arena com os tabuleiros.
+     * @param first O número do primeiro registro.
+     * @param count A quantidade de registros.
+     * @param units Recebe a máscara de unidades com conflito de cada registro, ou {@code null}.
+     * @return A quantidade de registros com algum valor repetido.
+     * 
+     * @throws IllegalArgumentException Se a arena não for de tabuleiros 9x9.
+     */
+    public static int validateBatch(BoardArena arena, int first, int count, int[] units) {
+        if (arena.getBoxSize() != 3) {
+            throw new IllegalArgumentException("A validação em lote é feita apenas em tabuleiros 9x9.");
+        }
+        int invalid = 0;
+        int done = 0;
+        while (done < count) {
+            int slot = first + done;
+            int run = Math.min(count - done, arena.runLength(slot));
+            invalid += validateBatch(arena.chunkOf(slot), arena.offsetOf(slot), run, units, done);
+            done += run;
+        }
+        return invalid;
+    }
+
+    /**
+     * Indica se a validação em formato plano está usando a Vector API.
+     * 
+     * @return {@code true} se a versão vetorizada está ativa.
      */
-    private static boolean isValidRow(Board board, int row) {
-        Set<Integer> set = new HashSet<>();
-        for (int col = 0; col < 9; col++) {
-            int value = board.getValue(row, col);
-            if (value != 0 && !set.add(value)) {
-                System.out.println("Erro na linha " + (row + 1));
-                return false;
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Valida {@code count} tabuleiros a partir de {@code offset}, escrevendo a máscara de cada um em 
+     * {@code units}, a partir da posição {@code unitsOffset}.
+     */
+    private static int validateBatch(byte[] cells, int offset, int count, int[] units, int unitsOffset) {
+        Objects.checkFromIndexSize(offset, 81L * count > Integer.MAX_VALUE ? -1 : 81 * count, cells.length);
+        if (units != null) {
+            Objects.checkFromIndexSize(unitsOffset, count, units.length);
+        }
+        int[] masks = VECTORIZED ? SCRATCH.get() : null;
+        int invalid = 0;
+        for (int i = 0; i < count; i++) {
+            int conflicts = findConflictingUnits(cells, offset + 81 * i, masks);
+            if (units != null) {
+                units[unitsOffset + i] = conflicts;
+            }
+            if (conflicts != 0) {
+                invalid++;
             }
         }
-        return true;
+        return invalid;
     }
-    
+
+    private static int findConflictingUnits(byte[] cells, int offset, int[] masks) {
+        Objects.checkFromIndexSize(offset, 81, cells.length);
+        if (masks != null) {
+            return VectorValidator.findConflictingUnits(cells, offset, masks);
+        }
+        int[] table = Topology.NINE.units;
+        int units = 0;
+        for (int u = 0; u < 27; u++) {
+            int sum = 0;
+            int or = 0;
+            for (int k = u * 9; k < u * 9 + 9; k++) {
+                int bit = (1 << (cells[offset + table[k]] & Board.VALUE_BITS)) >>> 1;
+                sum += bit;
+                or |= bit;
+            }
+            if (sum != or) {
+                units |= 1 << u;
+            }
+        }
+        return units;
+    }
+
     /**
-     * Verifica se uma coluna do tabuleiro é válida.
-     * 
-     * Este método valida se todos os valores em uma coluna específica do tabuleiro são únicos. 
-     * Ele percorre todas as linhas da coluna indicada pelo parâmetro {@code col} e utiliza um 
-     * conjunto (`Set`) para garantir que não existam valores duplicados. Caso o valor na célula 
-     * seja diferente de zero e já exista no conjunto, o método imprime uma mensagem de erro 
-     * indicando a coluna com a duplicata e retorna {@code false}. Se a coluna for válida (sem duplicatas), 
-     * o método retorna {@code true}.
+     * Imprime um relatório de validação.
+     * 
+     * Para cada unidade com conflito, é impressa uma linha indicando a linha, coluna ou quadrado 
+     * (numerados de 1 a 9) e os valores repetidos. Ao final, é impressa uma mensagem indicando se o 
+     * jogo está correto até o momento ou se contém erros.
      *
-     * @param board O objeto {@code Board} que representa o tabuleiro a ser validado.
-     * @param col O índice da coluna a ser verificada. Deve ser um valor entre 0 e 8 (inclusive).
-     * @return {@code true} se a coluna for válida (sem valores duplicados), {@code false} caso contrário.
+     * @param result O resultado produzido por {@link #validate(Board, ValidationResult)}.
+     * @param out O destino da impressão, normalmente {@code System.out}.
      */
-    private static boolean isValidColumn(Board board, int col) {
-        Set<Integer> set = new HashSet<>();
-        for (int row = 0; row < 9; row++) {
-            int value = board.getValue(row, col);
-            if (value != 0 && !set.add(value)) {
-                System.out.println("Erro na coluna " + (col + 1));
-                return false;
+    public static void printReport(ValidationResult result, PrintStream out) {
+        int size = result.getSize();
+        for (int unit = 0; unit < 3 * size; unit++) {
+            if (!result.isConflictingUnit(unit)) {
+                continue;
             }
+            String name = unit < size ? "na linha " : unit < 2 * size ? "na coluna " : "no quadrado ";
+            StringBuilder digits = new StringBuilder();
+            int mask = result.getConflictDigits(unit);
+            while (mask != 0) {
+                if (digits.length() > 0) {
+                    digits.append(", ");
+                }
+                digits.append(Integer.numberOfTrailingZeros(mask) + 1);
+                mask &= mask - 1;
+            }
+            out.println("Erro " + name + (unit % size + 1) + " (valores repetidos: " + digits + ")");
+        }
+        if (result.isValid()) {
+            out.println("O jogo está correto até o momento.");
+        } else {
+            out.println("O jogo contém erros.");
         }
-        return true;
     }
     
     /**
-     * Verifica se uma caixa (subgrade 3x3) do tabuleiro é válida.
-     * 
-     * Este método valida se todos os valores em uma caixa específica do tabuleiro são únicos. 
-     * Cada caixa do tabuleiro é composta por um bloco 3x3 de células, e o índice da caixa 
-     * é fornecido pelo parâmetro {@code box}. O método utiliza um conjunto (`Set`) para garantir 
-     * que não existam valores duplicados dentro da caixa. Caso o valor na célula seja diferente de 
-     * zero e já exista no conjunto, o método imprime uma mensagem de erro indicando a caixa com a duplicata 
-     * e retorna {@code false}. Se a caixa for válida (sem duplicatas), o método retorna {@code true}.
-     *
-     * A caixa é identificada por um número de 0 a 8, onde as caixas são organizadas em uma grade 
-     * 3x3 dentro do tabuleiro 9x9.
-     *
+     * Procura valores repetidos em uma unidade do tabuleiro.
+     * 
      * @param board O objeto {@code Board} que representa o tabuleiro a ser validado.
-     * @param box O índice da caixa a ser verificada. Deve ser um valor entre 0 e 8 (inclusive).
-     * @return {@code true} se a caixa for válida (sem valores duplicados), {@code false} caso contrário.
+     * @param units A tabela de unidades de {@link Topology} do tamanho do tabuleiro.
+     * @param first A posição da primeira célula da unidade na tabela ({@code unidade * N}).
+     * @param size O número de células da unidade.
+     * @return A máscara dos valores repetidos na unidade, onde o bit {@code v - 1} indica o valor {@code v}.
      */
-    private static boolean isValidBox(Board board, int box) {
-        Set<Integer> set = new HashSet<>();
-        int rowStart = (box / 3) * 3;
-        int colStart = (box % 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++){
-                int value = board.getValue(rowStart + i, colStart + j);
-                if (value !=0 && !set.add(value)) {
-                    System.out.println("Erro no quadrado " + (box + 1));
-                    return false;
-                }
+    private static int findDuplicates(Board board, int[] units, int first, int size) {
+        int seen = 0;
+        int duplicates = 0;
+        for (int k = first; k < first + size; k++) {
+            int value = board.getValue(units[k]);
+            if (value != 0) {
+                int bit = 1 << (value - 1);
+                duplicates |= seen & bit;
+                seen |= bit;
             }
         }
-        return true;
+        return duplicates;
     }
-    
+
     /**
      * Retorna os valores possíveis para uma célula específica no tabuleiro, 
      * considerando as regras de um jogo como o Sudoku.
      * 
-     * Este método determina quais números (de 1 a 9) podem ser inseridos em uma célula do tabuleiro,
-     * levando em consideração as restrições de linha, coluna e caixa 3x3. Ele começa com todos os números 
-     * de 1 a 9 disponíveis e, em seguida, remove os números que já estão presentes na mesma linha, coluna 
-     * e caixa (subgrade 3x3) da célula indicada pelos parâmetros {@code row} e {@code col}.
+     * Este método determina quais números (de 1 a N, 1 a 9 no 9x9) podem ser inseridos em uma célula do tabuleiro,
+     * levando em consideração as restrições de linha, coluna e caixa. Os candidatos são obtidos da 
+     * máscara mantida pelo tabuleiro ({@link Board#getCandidates(int, int)}), que já exclui os números 
+     * presentes na mesma linha, coluna e caixa da célula indicada pelos parâmetros 
+     * {@code row} e {@code col}.
      * O conjunto resultante de números representa os valores válidos para a célula específica.
      * 
      * @param board O objeto {@code Board} que representa o tabuleiro no qual a célula será validada.
      * @param row O índice da linha da célula para a qual os valores possíveis estão sendo calculados. 
-     *            Deve ser um valor entre 0 e 8 (inclusive).
+     *            Deve ser um valor entre 0 e N-1 (inclusive), onde N é o lado do tabuleiro.
      * @param col O índice da coluna da célula para a qual os valores possíveis estão sendo calculados. 
-     *            Deve ser um valor entre 0 e 8 (inclusive).
+     *            Deve ser um valor entre 0 e N-1 (inclusive).
      * @return Um conjunto {@code Set<Integer>} contendo os números válidos que podem ser colocados na célula 
      *         especificada. Se não houver valores possíveis, o conjunto estará vazio.
      */
     public static Set<Integer> getPossibleValues(Board board, int row, int col) {
         Set<Integer> possibleValues = new HashSet<>();
-        for (int i = 1; i <= 9; i++) {
-            possibleValues.add(i);
-        }
-        
-        for (int i = 0; i < 9; i++){
-            possibleValues.remove(board.getValue(row, i));
-            possibleValues.remove(board.getValue(i, col));
-        }
-        
-        int rowStart = (row / 3) * 3;
-        int colStart = (col / 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                possibleValues.remove(board.getValue(rowStart + i, colStart + j));
-            }
+        int candidates = board.getCandidates(row, col);
+        while (candidates != 0) {
+            possibleValues.add(Integer.numberOfTrailingZeros(candidates) + 1);
+            candidates &= candidates - 1;
         }
         return possibleValues;
     }
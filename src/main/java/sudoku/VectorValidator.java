@@ -0,0 +1,89 @@
+package sudoku;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ *
+ * @author caiofdev
+ */
+final class VectorValidator {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.length() * 8));
+    private static final int LANES = INTS.length();
+    private static final int CELLS = 81;
+    private static final int EMPTY = CELLS;
+    private static final int CHUNKS = (27 + LANES - 1) / LANES;
+
+    /**
+     * Tamanho do vetor de trabalho: as 81 máscaras, arredondadas para um múltiplo do número de faixas.
+     * A posição 81 vale sempre zero e é usada pelas faixas que sobram após a última unidade.
+     */
+    static final int SCRATCH_SIZE = (CELLS + LANES) / LANES * LANES;
+
+    /*
+     * Para cada grupo de LANES unidades e cada posição p de 0 a 8, INDEX guarda as células que ocupam a
+     * posição p nessas unidades. Uma leitura indexada (gather) com esse mapa traz, em um só vetor, a
+     * p-ésima célula de LANES unidades diferentes; nove leituras cobrem todas as células do grupo.
+     */
+    private static final int[] INDEX = new int[CHUNKS * 9 * LANES];
+
+    static {
+        for (int k = 0; k < CHUNKS; k++) {
+            for (int p = 0; p < 9; p++) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    int unit = k * LANES + lane;
+                    INDEX[(k * 9 + p) * LANES + lane] = unit < 27 ? Topology.NINE.units[unit * 9 + p] : EMPTY;
+                }
+            }
+        }
+    }
+
+    private VectorValidator() {
+    }
+
+    /**
+     * Indica se o processador oferece vetores de ao menos 8 inteiros, abaixo do que a versão escalar é mais rápida.
+     */
+    static boolean isSupported() {
+        return LANES >= 8;
+    }
+
+    /**
+     * Versão vetorizada de {@link Validator#findConflictingUnits(byte[], int)}.
+     *
+     * Primeiro, as 81 células são convertidas em máscaras de um bit ({@code (1 << v) >>> 1}, que vale 0
+     * para as vazias) em blocos de LANES células. Em seguida, para cada grupo de unidades, as nove
+     * células de cada unidade são somadas e combinadas com OU, uma faixa por unidade. Como os bits de
+     * valores distintos não se sobrepõem, a soma e o OU só diferem quando algum valor se repete, e a
+     * comparação das duas produz de uma vez a máscara das unidades com conflito do grupo.
+     *
+     * @param masks Vetor de trabalho com {@link #SCRATCH_SIZE} posições.
+     */
+    static int findConflictingUnits(byte[] cells, int offset, int[] masks) {
+        IntVector one = IntVector.broadcast(INTS, 1);
+        for (int i = 0; i < SCRATCH_SIZE; i += LANES) {
+            VectorMask<Byte> inRange = BYTES.indexInRange(i, CELLS);
+            IntVector values = (IntVector) ByteVector.fromArray(BYTES, cells, offset + i, inRange)
+                    .convertShape(VectorOperators.B2I, INTS, 0);
+            one.lanewise(VectorOperators.LSHL, values.and(Board.VALUE_BITS))
+                    .lanewise(VectorOperators.LSHR, 1)
+                    .intoArray(masks, i);
+        }
+        int units = 0;
+        for (int k = 0; k < CHUNKS; k++) {
+            IntVector sum = IntVector.zero(INTS);
+            IntVector or = IntVector.zero(INTS);
+            for (int p = 0; p < 9; p++) {
+                IntVector cell = IntVector.fromArray(INTS, masks, 0, INDEX, (k * 9 + p) * LANES);
+                sum = sum.add(cell);
+                or = or.or(cell);
+            }
+            units |= (int) sum.compare(VectorOperators.NE, or).toLong() << (k * LANES);
+        }
+        return units;
+    }
+}
@@ -0,0 +1,104 @@
+package sudoku;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conversão de tabuleiros para a linha de 81 caracteres e para o registro binário de 52 bytes, ida e volta.
+ *
+ * @author caiofdev
+ */
+class BoardCodecTest {
+    private static final String PUZZLE = "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79";
+
+    @Test
+    void readsAndWritesLines() {
+        Board board = BoardCodec.fromLine(PUZZLE);
+        assertEquals(PUZZLE, BoardCodec.toLine(board));
+        assertEquals(5, board.getValue(0, 0));
+        assertTrue(board.isAutoGeneratedValue(0, 0));
+        assertEquals(0, board.getValue(0, 2));
+        assertEquals(9, board.getValue(8, 8));
+
+        Board zeros = BoardCodec.fromLine(PUZZLE.replace('.', '0'));
+        assertEquals(PUZZLE, BoardCodec.toLine(zeros));
+    }
+
+    @Test
+    void recognizesLines() {
+        assertTrue(BoardCodec.isLine(PUZZLE));
+        assertTrue(BoardCodec.isLine(PUZZLE.replace('.', '0')));
+        assertFalse(BoardCodec.isLine(PUZZLE.substring(1)));
+        assertFalse(BoardCodec.isLine(PUZZLE.replace('.', 'x')));
+        assertFalse(BoardCodec.isLine("(1,1,5)"));
+    }
+
+    @Test
+    void rejectsInvalidLines() {
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.fromLine(PUZZLE.substring(1)));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.fromLine(PUZZLE.replace('.', 'x')));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toLine(new Board(2)));
+    }
+
+    @Test
+    void roundTripsRecordsWithGivensAndMoves() {
+        Board board = BoardCodec.fromLine(PUZZLE);
+        board.setValue(0, 2, 4);
+        board.setValue(8, 0, 3);
+        board.setValue(8, 7, 7);
+
+        ByteBuffer buffer = ByteBuffer.allocate(3 * BoardCodec.RECORD_SIZE);
+        BoardCodec.write(new Board(), buffer);
+        BoardCodec.write(board, buffer);
+        assertEquals(2 * BoardCodec.RECORD_SIZE, buffer.position());
+        buffer.flip();
+
+        assertEquals(81, BoardCodec.read(buffer).getEmptyCellCount());
+        Board read = BoardCodec.read(buffer);
+        assertEquals(2 * BoardCodec.RECORD_SIZE, buffer.position());
+        assertSameBoard(board, read);
+        assertSameBoard(board, BoardCodec.read(buffer, BoardCodec.RECORD_SIZE));
+    }
+
+    @Test
+    void writesAtAbsoluteOffsetWithoutMovingPosition() {
+        Board board = PuzzleId.generate(42, Difficulty.HARD);
+        ByteBuffer buffer = ByteBuffer.allocate(2 * BoardCodec.RECORD_SIZE);
+        BoardCodec.write(board, buffer, BoardCodec.RECORD_SIZE);
+        assertEquals(0, buffer.position());
+        assertSameBoard(board, BoardCodec.read(buffer, BoardCodec.RECORD_SIZE));
+    }
+
+    @Test
+    void editsCellsOfEncodedRecord() {
+        Board board = BoardCodec.fromLine(PUZZLE);
+        byte[] record = new byte[BoardCodec.RECORD_SIZE];
+        BoardCodec.write(board, ByteBuffer.wrap(record));
+        assertTrue(BoardCodec.isGiven(record, 0));
+        assertFalse(BoardCodec.isGiven(record, 2));
+
+        BoardCodec.setCell(record, 2, 4, false);
+        BoardCodec.setCell(record, 3, 6, true);
+        BoardCodec.setCell(record, 80, 0, false);
+        board.setValue(0, 2, 4);
+        board.setAutoGeneratedValue(0, 3, 6);
+        board.setValue(8, 8, 0);
+        assertTrue(BoardCodec.isGiven(record, 3));
+        assertSameBoard(board, BoardCodec.read(ByteBuffer.wrap(record)));
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(expected.getValue(row, col), actual.getValue(row, col), "(" + row + "," + col + ")");
+                if (expected.getValue(row, col) != 0) {
+                    assertEquals(expected.isAutoGeneratedValue(row, col), actual.isAutoGeneratedValue(row, col), "(" + row + "," + col + ")");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package sudoku;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Invariância da forma canônica sob as transformações que preservam as regras, sorteadas ao acaso.
+ *
+ * @author caiofdev
+ */
+class CanonicalizerTest {
+    private static final Difficulty[] LEVELS = {Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD, Difficulty.EXPERT};
+
+    @Test
+    void equivalentPuzzlesHaveSameForm() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        SplittableRandom random = new SplittableRandom(17);
+        for (int i = 0; i < 1000; i++) {
+            Board puzzle = PuzzleId.generate(i / 10, LEVELS[i / 10 % LEVELS.length]);
+            String expected = canonicalizer.canonicalLine(puzzle);
+            Board transformed = transform(puzzle, random);
+            assertEquals(expected, canonicalizer.canonicalLine(transformed), "jogo " + BoardCodec.toLine(transformed));
+        }
+    }
+
+    @Test
+    void formIsEquivalentAndStable() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        Board puzzle = PuzzleId.generate(5, Difficulty.HARD);
+        Board canonical = canonicalizer.canonicalize(puzzle);
+        assertEquals(81 - puzzle.getEmptyCellCount(), 81 - canonical.getEmptyCellCount());
+        assertEquals(BoardCodec.toLine(canonical), canonicalizer.canonicalLine(canonical));
+        assertEquals(1, new Solver().countSolutions(canonical, 2));
+    }
+
+    @Test
+    void differentPuzzlesHaveDifferentForms() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        assertNotEquals(canonicalizer.canonicalLine(PuzzleId.generate(1, Difficulty.MEDIUM)),
+                canonicalizer.canonicalLine(PuzzleId.generate(2, Difficulty.MEDIUM)));
+    }
+
+    @Test
+    void rejectsOtherSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new Canonicalizer().canonicalLine(new Board(2)));
+    }
+
+    @Test
+    void rejectsBoardsWithFewerThanSeventeenClues() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        assertThrows(IllegalArgumentException.class, () -> canonicalizer.canonicalLine(new Board()));
+        assertThrows(IllegalArgumentException.class, () -> canonicalizer.canonicalLine(BoardCodec.fromLine("1234567894567891" + ".".repeat(65))));
+    }
+
+    @Test
+    void canonicalizesSparseBoardsWithinBounds() {
+        // Uma faixa completa e o resto vazio: quase todas as combinações empatam até a última linha.
+        Canonicalizer canonicalizer = new Canonicalizer();
+        Board band = BoardCodec.fromLine("123456789456789123789123456" + ".".repeat(54));
+        String expected = canonicalizer.canonicalLine(band);
+        assertEquals(expected, canonicalizer.canonicalLine(transform(band, new SplittableRandom(3))));
+
+        Board puzzle = PuzzleId.generate(3, Difficulty.EXPERT);
+        assertEquals(new Canonicalizer().canonicalLine(puzzle), canonicalizer.canonicalLine(puzzle));
+    }
+
+    /**
+     * Aplica ao jogo uma troca de dígitos, permutações de faixas, linhas, pilhas e colunas e, às vezes, a transposição.
+     */
+    private static Board transform(Board board, SplittableRandom random) {
+        int[] digits = permutation(10, 1, random);
+        int[] rows = lines(random);
+        int[] cols = lines(random);
+        boolean transpose = random.nextBoolean();
+        Board transformed = new Board();
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int value = transpose ? board.getValue(cols[col], rows[row]) : board.getValue(rows[row], cols[col]);
+                if (value != 0) {
+                    transformed.setAutoGeneratedValue(row, col, digits[value]);
+                }
+            }
+        }
+        return transformed;
+    }
+
+    private static int[] lines(SplittableRandom random) {
+        int[] bands = permutation(3, 0, random);
+        int[] lines = new int[9];
+        for (int band = 0; band < 3; band++) {
+            int[] within = permutation(3, 0, random);
+            for (int i = 0; i < 3; i++) {
+                lines[band * 3 + i] = bands[band] * 3 + within[i];
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Sorteia uma permutação dos valores de {@code from} a {@code size - 1}, nas mesmas posições.
+     */
+    private static int[] permutation(int size, int from, SplittableRandom random) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        for (int i = size - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,177 @@
+package sudoku;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recuperação dos jogos salvos depois de uma parada sem {@link GameStore#close()}: as instâncias
+ * abandonadas simulam uma queda do processo, em que só o que já estava em disco sobrevive.
+ *
+ * @author caiofdev
+ */
+class GameStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversMovesAfterUncleanStop() throws IOException {
+        GameStore store = GameStore.open(directory);
+        Board first = PuzzleId.generate(7, Difficulty.MEDIUM);
+        Board second = PuzzleId.generate(8, Difficulty.EASY);
+        Board ended = PuzzleId.generate(9, Difficulty.HARD);
+        long firstId = store.create(first);
+        long secondId = store.create(second);
+        long endedId = store.create(ended);
+        play(store, firstId, first, 30, 1);
+        play(store, secondId, second, 10, 2);
+        store.remove(endedId);
+
+        GameStore reopened = GameStore.open(directory);
+        assertArrayEquals(new long[] {firstId, secondId}, reopened.getGameIds());
+        assertSameBoard(first, reopened.load(firstId));
+        assertSameBoard(second, reopened.load(secondId));
+        assertThrows(IllegalArgumentException.class, () -> reopened.load(endedId));
+
+        long next = reopened.create(new Board());
+        assertTrue(next > endedId);
+        reopened.close();
+    }
+
+    @Test
+    void recoversAcrossSegmentRotations() throws IOException {
+        // Segmentos de 64 registros: cada jogo ocupa vários, e a rotação grava pontos de controle no meio das jogadas.
+        GameStore store = new GameStore(directory, 64 * GameStore.LOG_RECORD_SIZE);
+        Board[] boards = new Board[4];
+        long[] ids = new long[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = PuzzleId.generate(100 + i, Difficulty.EXPERT);
+            ids[i] = store.create(boards[i]);
+        }
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < boards.length; i++) {
+                play(store, ids[i], boards[i], 5, round + i);
+            }
+        }
+
+        GameStore reopened = new GameStore(directory, 64 * GameStore.LOG_RECORD_SIZE);
+        for (int i = 0; i < boards.length; i++) {
+            assertSameBoard(boards[i], reopened.load(ids[i]));
+        }
+        assertTrue(segments().size() <= 2, "segmentos antigos não foram apagados: " + segments());
+        reopened.close();
+
+        GameStore again = GameStore.open(directory);
+        for (int i = 0; i < boards.length; i++) {
+            assertSameBoard(boards[i], again.load(ids[i]));
+        }
+        again.close();
+    }
+
+    @Test
+    void ignoresTornRecordAtEndOfLog() throws IOException {
+        GameStore store = GameStore.open(directory);
+        Board board = PuzzleId.generate(11, Difficulty.MEDIUM);
+        long id = store.create(board);
+        play(store, id, board, 12, 3);
+
+        // Uma queda no meio de uma gravação deixa um registro incompleto depois do último confirmado.
+        List<Path> segments = segments();
+        Path last = segments.get(segments.size() - 1);
+        Files.write(last, new byte[] {1, 2, 3, 4, 5, 6, 7}, StandardOpenOption.APPEND);
+
+        GameStore reopened = GameStore.open(directory);
+        assertSameBoard(board, reopened.load(id));
+        reopened.logMove(id, 0, 0, 0);
+        board.setValue(0, 0, 0);
+        reopened.close();
+
+        GameStore again = GameStore.open(directory);
+        assertSameBoard(board, again.load(id));
+        again.close();
+    }
+
+    @Test
+    void keepsInitialValuesDefinedByThePlayer() throws IOException {
+        GameStore store = GameStore.open(directory);
+        Game game = new Game();
+        game.setOutput(new PrintStream(OutputStream.nullOutputStream()));
+        game.setInitialValues("(1,1,5)(2,3,7)(9,9,1)");
+        long id = game.save(store);
+        game.perform(1, "(1,2,3)");
+        game.perform(1, "(5,5,4)");
+        game.perform(2, "(5,5)");
+        game.perform(1, "(2,3,9)");
+        game.perform(2, "(9,9)");
+
+        GameStore reopened = GameStore.open(directory);
+        Game resumed = Game.resume(reopened, id);
+        assertSameBoard(game.getBoard(), resumed.getBoard(), false);
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(game.isInitialValue(row, col), resumed.isInitialValue(row, col), "(" + row + "," + col + ")");
+            }
+        }
+        assertTrue(resumed.isInitialValue(0, 0));
+        assertFalse(resumed.isInitialValue(0, 1));
+        assertEquals(3, resumed.getBoard().getValue(0, 1));
+        assertEquals(7, resumed.getBoard().getValue(1, 2));
+        assertEquals(1, resumed.getBoard().getValue(8, 8));
+        assertTrue(resumed.isInitialValue(8, 8));
+        reopened.close();
+    }
+
+    /**
+     * Preenche células vazias do tabuleiro, registrando cada jogada no {@code GameStore} e no próprio tabuleiro.
+     */
+    private static void play(GameStore store, long id, Board board, int moves, int seed) throws IOException {
+        int cell = seed * 7 % 81;
+        for (int done = 0; done < moves; cell = (cell + 13) % 81) {
+            int row = cell / 9;
+            int col = cell % 9;
+            if (board.isAutoGeneratedValue(row, col)) {
+                continue;
+            }
+            int value = (seed + done) % 10;
+            store.logMove(id, row, col, value);
+            board.setValue(row, col, value);
+            done++;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("wal-"))
+                    .sorted(Comparator.comparingLong(path -> Long.parseLong(path.getFileName().toString().replaceAll("\\D", ""))))
+                    .toList();
+        }
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        assertSameBoard(expected, actual, true);
+    }
+
+    private static void assertSameBoard(Board expected, Board actual, boolean compareGivens) {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(expected.getValue(row, col), actual.getValue(row, col), "(" + row + "," + col + ")");
+                if (compareGivens) {
+                    assertEquals(expected.isAutoGeneratedValue(row, col), actual.isAutoGeneratedValue(row, col), "(" + row + "," + col + ")");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package sudoku;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Desfazer, refazer e restauração de instantâneos em ramos diferentes do histórico de jogadas.
+ *
+ * @author caiofdev
+ */
+class MoveJournalTest {
+    private final Board board = new Board();
+    private final MoveJournal journal = new MoveJournal();
+    private final List<Integer> changed = new ArrayList<>();
+
+    @Test
+    void undoesAndRedoesMoves() {
+        play(0, 0, 5);
+        play(0, 1, 3);
+        play(0, 0, 7);
+        assertEquals(3, journal.getDepth());
+
+        assertTrue(journal.undo(board, changed::add));
+        assertEquals(5, board.getValue(0, 0));
+        assertTrue(journal.undo(board, changed::add));
+        assertEquals(0, board.getValue(0, 1));
+        assertTrue(journal.undo(board, changed::add));
+        assertEquals(0, board.getValue(0, 0));
+        assertFalse(journal.undo(board, changed::add));
+        assertEquals(List.of(0, 1, 0), changed);
+
+        assertTrue(journal.redo(board, changed::add));
+        assertTrue(journal.redo(board, changed::add));
+        assertTrue(journal.redo(board, changed::add));
+        assertFalse(journal.redo(board, changed::add));
+        assertEquals(7, board.getValue(0, 0));
+        assertEquals(3, board.getValue(0, 1));
+        assertEquals(3, journal.getDepth());
+    }
+
+    @Test
+    void newMoveAfterUndoDropsRedo() {
+        play(1, 1, 2);
+        play(1, 2, 4);
+        journal.undo(board, changed::add);
+        play(2, 2, 9);
+
+        assertFalse(journal.redo(board, changed::add));
+        assertEquals(0, board.getValue(1, 2));
+        assertEquals(9, board.getValue(2, 2));
+        assertEquals(2, journal.getDepth());
+    }
+
+    @Test
+    void ignoresMovesThatDoNotChangeTheCell() {
+        play(4, 4, 6);
+        play(4, 4, 6);
+        assertEquals(1, journal.getDepth());
+    }
+
+    @Test
+    void restoresSnapshotOnAnotherBranch() {
+        play(0, 0, 1);
+        play(0, 1, 2);
+        int common = journal.snapshot();
+        play(0, 2, 3);
+        play(0, 3, 4);
+        int first = journal.snapshot();
+        String firstState = BoardCodec.toLine(board);
+
+        journal.undo(board, changed::add);
+        journal.undo(board, changed::add);
+        play(5, 5, 8);
+        play(5, 6, 9);
+        play(5, 7, 1);
+        int second = journal.snapshot();
+        String secondState = BoardCodec.toLine(board);
+
+        // Da segunda ramificação para a primeira: três jogadas desfeitas até o ponto em comum e duas refeitas.
+        changed.clear();
+        journal.restore(board, first, changed::add);
+        assertEquals(firstState, BoardCodec.toLine(board));
+        assertEquals(List.of(5 * 9 + 7, 5 * 9 + 6, 5 * 9 + 5, 2, 3), changed);
+        assertEquals(4, journal.getDepth());
+
+        changed.clear();
+        journal.restore(board, second, changed::add);
+        assertEquals(secondState, BoardCodec.toLine(board));
+        assertEquals(5, changed.size());
+
+        journal.restore(board, common, changed::add);
+        assertEquals(2, journal.getDepth());
+        assertEquals(0, board.getValue(5, 5));
+        assertEquals(0, board.getValue(0, 2));
+
+        // Depois de restaurar, refazer segue o caminho percorrido por último.
+        assertTrue(journal.redo(board, changed::add));
+        assertEquals(8, board.getValue(5, 5));
+    }
+
+    @Test
+    void restoresInitialState() {
+        int initial = journal.snapshot();
+        play(3, 3, 5);
+        play(3, 4, 6);
+        journal.restore(board, initial, changed::add);
+        assertEquals(81, board.getEmptyCellCount());
+        assertEquals(0, journal.getDepth());
+        assertThrows(IllegalArgumentException.class, () -> journal.restore(board, 99, changed::add));
+        assertThrows(IllegalArgumentException.class, () -> journal.restore(board, -1, changed::add));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        for (int i = 0; i < 500; i++) {
+            play(i % 81 / 9, i % 9, (i / 81 + i) % 9 + 1);
+        }
+        assertEquals(500, journal.getDepth());
+        int last = journal.snapshot();
+        String state = BoardCodec.toLine(board);
+        journal.restore(board, 0, changed::add);
+        assertEquals(81, board.getEmptyCellCount());
+        journal.restore(board, last, changed::add);
+        assertEquals(state, BoardCodec.toLine(board));
+    }
+
+    private void play(int row, int col, int value) {
+        journal.record(board, row, col, board.getValue(row, col), value);
+        board.setValue(row, col, value);
+    }
+}
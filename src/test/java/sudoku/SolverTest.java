@@ -0,0 +1,80 @@
+package sudoku;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Resolução e contagem de soluções pela busca de cobertura exata, em jogos com resposta conhecida.
+ *
+ * @author caiofdev
+ */
+class SolverTest {
+    private static final String PUZZLE = "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79";
+    private static final String SOLUTION = "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+    @Test
+    void solvesPuzzleWithoutChangingIt() {
+        Board board = BoardCodec.fromLine(PUZZLE);
+        Board solved = new Solver().solve(board);
+        assertEquals(SOLUTION, BoardCodec.toLine(solved));
+        assertEquals(PUZZLE, BoardCodec.toLine(board));
+    }
+
+    @Test
+    void countsUniqueSolution() {
+        Solver solver = new Solver();
+        Board board = BoardCodec.fromLine(PUZZLE);
+        assertEquals(1, solver.countSolutions(board, 10));
+        assertTrue(solver.hasUniqueSolution(board));
+    }
+
+    @Test
+    void countsEverySolutionOfEmptyFourByFour() {
+        // O tabuleiro 4x4 vazio tem exatamente 288 soluções.
+        Solver solver = new Solver(2);
+        assertEquals(288, solver.countSolutions(new Board(2), 1000));
+        assertEquals(288, solver.countSolutions(new Board(2), 288));
+        assertEquals(100, solver.countSolutions(new Board(2), 100));
+    }
+
+    @Test
+    void stopsCountingAtLimit() {
+        Solver solver = new Solver();
+        assertEquals(2, solver.countSolutions(new Board(), 2));
+        assertEquals(500, solver.countSolutions(new Board(), 500));
+        assertFalse(solver.hasUniqueSolution(new Board()));
+    }
+
+    @Test
+    void countsSolutionsOfPuzzleWithTwo() {
+        // Trocar os 6 e os 7 das células (1,4), (1,5), (4,4) e (4,5) da solução mantém todas as regras,
+        // de forma que, sem esses quatro valores, o jogo tem duas soluções.
+        Board board = BoardCodec.fromLine(SOLUTION);
+        board.setValue(0, 3, 0);
+        board.setValue(0, 4, 0);
+        board.setValue(3, 3, 0);
+        board.setValue(3, 4, 0);
+        assertEquals(2, new Solver().countSolutions(board, 10));
+        assertEquals(2, new SolutionCounter().countSolutions(board, 10));
+    }
+
+    @Test
+    void findsNoSolutionForContradictoryBoard() {
+        Board board = BoardCodec.fromLine(PUZZLE);
+        board.setValue(0, 2, 5);
+        Solver solver = new Solver();
+        assertEquals(0, solver.countSolutions(board, 10));
+        assertNull(solver.solve(board));
+    }
+
+    @Test
+    void rejectsInvalidLimitAndSize() {
+        Solver solver = new Solver();
+        assertThrows(IllegalArgumentException.class, () -> solver.countSolutions(new Board(), 0));
+        assertThrows(IllegalArgumentException.class, () -> solver.countSolutions(new Board(2), 1));
+    }
+}